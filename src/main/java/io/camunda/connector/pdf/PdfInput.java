@@ -37,6 +37,16 @@ public class PdfInput implements CherryInput {
     public static final String DESTINATION_STORAGEDEFINITION_CMIS = "destinationStorageDefinitionCmis";
 
     public static final String FILE_TO_ADD = "fileToAdd";
+    /**
+     * Split
+     */
+    public static final String SPLIT_MODE = "splitMode";
+    public static final String SPLIT_MODE_EXPRESSIONS = "EXPRESSIONS";
+    public static final String SPLIT_MODE_EVERY_N_PAGES = "EVERY_N_PAGES";
+    public static final String SPLIT_MODE_BOOKMARKS = "BOOKMARKS";
+    public static final String SPLIT_EXPRESSIONS = "splitExpressions";
+    public static final String SPLIT_EVERY_N_PAGES = "splitEveryNPages";
+    public static final String SPLIT_PARALLELISM = "splitParallelism";
     /**
      * Watermark
      */
@@ -50,6 +60,9 @@ public class PdfInput implements CherryInput {
     public static final String WATERMARK_ROTATION = "watermarkRotation";
     public static final String WATERMARK_FONTHEIGHT = "watermarkFontHeight";
     public static final String WATERMARK_COLOR = "watermarkColor";
+    // a standard font (Helvetica-Bold...) or a TrueType font in the font directory, see FontCache
+    public static final String WATERMARK_FONT = "watermarkFont";
+    public static final String SAVE_INCREMENTAL = "saveIncremental";
     public static final String COLOR_RED = "red";
     public static final String COLOR_GREEN = "green";
     public static final String COLOR_BLACK = "black";
@@ -67,6 +80,45 @@ public class PdfInput implements CherryInput {
      * PdfToImage
      */
     public static final String PDFTOIMAGE_DPI = "dpi";
+    public static final String MERGE_PARALLELISM = "mergeParallelism";
+    public static final String IMAGE_PARALLELISM = "imageParallelism";
+    public static final String IMAGE_PAGE_SIZE = "imagePageSize";
+    public static final String IMAGE_PAGE_SIZE_IMAGE = "IMAGE";
+    public static final String IMAGE_PAGE_SIZE_A4 = "A4";
+    public static final String IMAGE_PAGE_SIZE_LETTER = "LETTER";
+    public static final String IMAGE_MAX_DPI = "imageMaxDpi";
+    public static final String MERGE_MODE = "mergeMode";
+    public static final String MERGE_MODE_STANDARD = "STANDARD";
+    public static final String MERGE_MODE_INCREMENTAL = "INCREMENTAL";
+    public static final String PDFTOIMAGE_RENDER_PARALLELISM = "renderParallelism";
+    public static final String PDFTOIMAGE_RENDER_QUEUE_SIZE = "renderQueueSize";
+    public static final String PDFTOIMAGE_RENDER_PROFILE = "renderProfile";
+    public static final String PDFTOIMAGE_RENDER_PROFILE_STANDARD = "STANDARD";
+    public static final String PDFTOIMAGE_RENDER_PROFILE_GRAY_DRAFT = "GRAY_DRAFT";
+    public static final String PDFTOIMAGE_RENDER_PROFILE_BINARY_DRAFT = "BINARY_DRAFT";
+    public static final String PDFTOIMAGE_RENDER_PROFILE_THUMBNAIL = "THUMBNAIL";
+    public static final String PDFTOIMAGE_RENDER_SKIP_ANNOTATIONS = "renderSkipAnnotations";
+    public static final String PDFTOIMAGE_MAX_PIXELS_PER_PAGE = "maxPixelsPerPage";
+    public static final String PDFTOIMAGE_MAX_PIXELS_POLICY = "maxPixelsPolicy";
+    public static final String PDFTOIMAGE_MAX_PIXELS_POLICY_ADAPT_DPI = "ADAPT_DPI";
+    public static final String PDFTOIMAGE_MAX_PIXELS_POLICY_FAIL = "FAIL";
+    public static final String PDFTOIMAGE_RENDER_TILED = "renderTiled";
+    public static final String PDFTOIMAGE_RENDER_STRIP_HEIGHT = "renderStripHeight";
+    public static final String PDFTOIMAGE_IMAGE_FORMAT = "imageFormat";
+    public static final String PDFTOIMAGE_IMAGE_FORMAT_PNG = "PNG";
+    public static final String PDFTOIMAGE_IMAGE_FORMAT_PNG_PALETTE = "PNG_PALETTE";
+    public static final String PDFTOIMAGE_IMAGE_FORMAT_JPEG = "JPEG";
+    public static final String PDFTOIMAGE_IMAGE_FORMAT_TIFF_G4 = "TIFF_G4";
+    public static final String PDFTOIMAGE_IMAGE_COMPRESSION_LEVEL = "imageCompressionLevel";
+    public static final String PDFTOIMAGE_IMAGE_QUALITY = "imageQuality";
+    /**
+     * Load the PDF document: see LoadPdfDocument.MemoryMode
+     */
+    public static final String LOAD_MEMORY_MODE = "loadMemoryMode";
+    public static final String LOAD_MEMORY_MODE_AUTO = "AUTO";
+    public static final String LOAD_MEMORY_MODE_MAIN_MEMORY = "MAIN_MEMORY";
+    public static final String LOAD_MEMORY_MODE_MIXED = "MIXED";
+    public static final String LOAD_MEMORY_MODE_TEMP_FILE = "TEMP_FILE";
     public static final RunnerParameter pdfParameterDestinationFileName = new RunnerParameter(
             PdfInput.DESTINATION_FILE_NAME,
             // name
@@ -98,6 +150,16 @@ public class PdfInput implements CherryInput {
             String.class, // class
             RunnerParameter.Level.OPTIONAL, // level
             "CMIS information when the storage is a CMIS repository.");
+    public static final RunnerParameter pdfParameterLoadMemoryMode = new RunnerParameter(
+            PdfInput.LOAD_MEMORY_MODE, // name
+            "Load memory mode", // label
+            String.class, // class
+            RunnerParameter.Level.OPTIONAL, // level
+            "Where the PDF document is kept during the operation. AUTO (default) calculates it from the document size and the memory available. Use TEMP_FILE for very large documents") // param
+            .addChoice(PdfInput.LOAD_MEMORY_MODE_AUTO, "Auto")
+            .addChoice(PdfInput.LOAD_MEMORY_MODE_MAIN_MEMORY, "Main memory only")
+            .addChoice(PdfInput.LOAD_MEMORY_MODE_MIXED, "Main memory, then temporary file")
+            .addChoice(PdfInput.LOAD_MEMORY_MODE_TEMP_FILE, "Temporary file only");
     private final Logger logger = LoggerFactory.getLogger(PdfInput.class.getName());
     public Long dpi = 300L;
     private String pdfFunction;
@@ -114,11 +176,34 @@ public class PdfInput implements CherryInput {
 
 
     private String fileToAdd;
+    private String splitMode;
+    private List<String> splitExpressions;
+    private Long splitEveryNPages;
+    private Long splitParallelism;
     private String waterMark;
     private String watermarkPosition;
     private String watermarkColor;
     private Long watermarkRotation;
     private Long watermarkFontHeight;
+    private String watermarkFont;
+    private Boolean saveIncremental;
+    private String loadMemoryMode;
+    private Long renderParallelism;
+    private Long renderQueueSize;
+    private Long mergeParallelism;
+    private Long imageParallelism;
+    private String imagePageSize;
+    private Long imageMaxDpi;
+    private String mergeMode;
+    private String renderProfile;
+    private Boolean renderSkipAnnotations;
+    private Long maxPixelsPerPage;
+    private String maxPixelsPolicy;
+    private Boolean renderTiled;
+    private Long renderStripHeight;
+    private String imageFormat;
+    private Long imageCompressionLevel;
+    private Long imageQuality;
 
     public String getPdfFunction() {
         return pdfFunction;
@@ -156,6 +241,22 @@ public class PdfInput implements CherryInput {
         return destinationStorageDefinitionCmis;
     }
 
+    public String getSplitMode() {
+        return splitMode;
+    }
+
+    public List<String> getSplitExpressions() {
+        return splitExpressions;
+    }
+
+    public Long getSplitEveryNPages() {
+        return splitEveryNPages;
+    }
+
+    public long getSplitParallelism() {
+        return splitParallelism == null || splitParallelism < 1 ? 4 : splitParallelism;
+    }
+
     public String getWatermarkColor() {
         return watermarkColor;
     }
@@ -184,10 +285,86 @@ public class PdfInput implements CherryInput {
         return watermarkFontHeight;
     }
 
+    public String getWatermarkFont() {
+        return watermarkFont;
+    }
+
+    public Boolean getSaveIncremental() {
+        return saveIncremental;
+    }
+
     public Long getDpi() {
         return dpi;
     }
 
+    public long getRenderParallelism() {
+        return renderParallelism == null || renderParallelism < 1 ? 1 : renderParallelism;
+    }
+
+    public String getMergeMode() {
+        return mergeMode;
+    }
+
+    public String getImagePageSize() {
+        return imagePageSize;
+    }
+
+    public Long getImageMaxDpi() {
+        return imageMaxDpi;
+    }
+
+    public long getImageParallelism() {
+        return imageParallelism == null || imageParallelism < 1 ? 4 : imageParallelism;
+    }
+
+    public long getMergeParallelism() {
+        return mergeParallelism == null || mergeParallelism < 1 ? 4 : mergeParallelism;
+    }
+
+    public long getRenderQueueSize() {
+        return renderQueueSize == null || renderQueueSize < 1 ? 2 : renderQueueSize;
+    }
+
+    public String getRenderProfile() {
+        return renderProfile;
+    }
+
+    public Boolean getRenderSkipAnnotations() {
+        return renderSkipAnnotations;
+    }
+
+    public Long getMaxPixelsPerPage() {
+        return maxPixelsPerPage;
+    }
+
+    public String getMaxPixelsPolicy() {
+        return maxPixelsPolicy;
+    }
+
+    public Boolean getRenderTiled() {
+        return renderTiled;
+    }
+
+    public long getRenderStripHeight() {
+        return renderStripHeight == null ? 256 : renderStripHeight;
+    }
+
+    public String getImageFormat() {
+        return imageFormat;
+    }
+
+    public Long getImageCompressionLevel() {
+        return imageCompressionLevel;
+    }
+
+    public Long getImageQuality() {
+        return imageQuality;
+    }
+
+    public String getLoadMemoryMode() {
+        return loadMemoryMode;
+    }
+
     @JsonIgnore
     @Override
     public List<Map<String, Object>> getInputParameters() {
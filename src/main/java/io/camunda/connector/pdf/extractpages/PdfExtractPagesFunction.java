@@ -10,6 +10,7 @@ import io.camunda.connector.pdf.sharedfunctions.LoadPdfDocument;
 import io.camunda.connector.pdf.sharedfunctions.RetrieveStorageDefinition;
 import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
 import io.camunda.connector.pdf.toolbox.ExtractPageExpression;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileRepoFactory;
@@ -77,18 +78,20 @@ public class PdfExtractPagesFunction implements PdfSubFunction {
       StorageDefinition destinationStorageDefinition = RetrieveStorageDefinition.getStorageDefinition(pdfInput,
           docSource, true, this);
 
-      sourceDocument = LoadPdfDocument.loadPdfDocument(docSource, this);
+      sourceDocument = LoadPdfDocument.loadPdfDocument(docSource,
+          LoadPdfDocument.getMemoryMode(pdfInput.getLoadMemoryMode()), this);
 
+      long beginProcess = System.currentTimeMillis();
       destinationDocument = new PDDocument();
       ExtractPageExpression extractPageExpression = new ExtractPageExpression(extractExpression, sourceDocument, this);
 
-      // Loop on each page
-      for (int pageIndex = 1; pageIndex <= sourceDocument.getNumberOfPages(); pageIndex++)
-        if (extractPageExpression.isPageInRange(pageIndex)) {
-          // getPage starts at 0, pageIndex start at 1
-          destinationDocument.addPage(sourceDocument.getPage(pageIndex - 1));
-          nbPagesExtracted++;
-        }
+      // Loop on each page selected, getPage starts at 0
+      for (int pageIndex : extractPageExpression.getSelectedPageIndexes()) {
+        destinationDocument.addPage(sourceDocument.getPage(pageIndex));
+        nbPagesExtracted++;
+      }
+      PdfMetrics.recordStage(this, PdfMetrics.Stage.PROCESS, System.currentTimeMillis() - beginProcess);
+      PdfMetrics.countPages(this, nbPagesExtracted);
 
       // produce the result, and save it in the pdfOutput
       // Exception PdfToolbox.ERROR_CREATE_FILEVARIABLE, PdfToolbox.ERROR_SAVE_ERROR
@@ -156,8 +159,9 @@ public class PdfExtractPagesFunction implements PdfSubFunction {
                     "Extract Expression", // label
                     String.class, // class
                     RunnerParameter.Level.REQUIRED, // level
-                    "Extract pilot: example, 2-4 mean extract pages 2 to 4 (document page start at 1). Use \u0027n\u0027 to specify the end of the document (2-n) extract from page 2 to the end. Simple number is accepted to extract a page. Example: 4-5, 10, 15-n or 2-n, 1 (first page to the end)"),
+                    "Extract pilot: example, 2-4 mean extract pages 2 to 4 (document page start at 1). Use \u0027n\u0027 to specify the end of the document (2-n) extract from page 2 to the end, rK the K-th page from the end (r1 is the last page). Simple number is accepted to extract a page. Add :odd or :even to keep odd or even pages, /K to keep one page every K pages. Example: 4-5, 10, 15-n, r3-n, 1-n:odd, 1-n/5"),
 
+            PdfInput.pdfParameterLoadMemoryMode,
             PdfInput.pdfParameterDestinationFileName,
             PdfInput.pdfParameterDestinationJsonStorageDefinition,
             PdfInput.pdfParameterDestinationStorageDefinition,
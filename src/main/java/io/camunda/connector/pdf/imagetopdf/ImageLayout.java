@@ -0,0 +1,145 @@
+package io.camunda.connector.pdf.imagetopdf;
+
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.pdf.toolbox.PdfError;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Place an image on a page, and compute the resolution the image needs on this page.
+ */
+class ImageLayout {
+    private static final float POINTS_PER_INCH = 72f;
+
+    /**
+     * IMAGE: the page has the size of the image (one pixel is one point)
+     * A4, LETTER: the image is scaled to fit the page, centered. The page is in landscape for a landscape image
+     */
+    enum PageSize {IMAGE, A4, LETTER}
+
+    /**
+     * Toolbox, only static method
+     */
+    private ImageLayout() {
+    }
+
+    /**
+     * Decode the page size given as a parameter
+     *
+     * @param pageSizeSt page size. Null or empty means IMAGE
+     * @return the page size
+     * @throws ConnectorException if the value is unknown
+     */
+    static PageSize getPageSize(String pageSizeSt) throws ConnectorException {
+        if (pageSizeSt == null || pageSizeSt.trim().isEmpty())
+            return PageSize.IMAGE;
+        try {
+            return PageSize.valueOf(pageSizeSt.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+                    "Page size [" + pageSizeSt + "] is unknown, expected " + Arrays.toString(PageSize.values()));
+        }
+    }
+
+    /**
+     * Place an image on a page
+     *
+     * @param pixelWidth  width of the image in pixels
+     * @param pixelHeight height of the image in pixels
+     * @param pageSize    page size
+     * @return the placement
+     */
+    static Placement place(int pixelWidth, int pixelHeight, PageSize pageSize) {
+        PDRectangle format = switch (pageSize) {
+            case IMAGE -> null;
+            case A4 -> PDRectangle.A4;
+            case LETTER -> PDRectangle.LETTER;
+        };
+        if (format == null)
+            return new Placement(new PDRectangle(pixelWidth, pixelHeight), 0, 0, pixelWidth, pixelHeight);
+
+        PDRectangle page = pixelWidth > pixelHeight ?
+                new PDRectangle(format.getHeight(), format.getWidth()) :
+                new PDRectangle(format.getWidth(), format.getHeight());
+        float scale = Math.min(page.getWidth() / pixelWidth, page.getHeight() / pixelHeight);
+        float width = pixelWidth * scale;
+        float height = pixelHeight * scale;
+        return new Placement(page, (page.getWidth() - width) / 2, (page.getHeight() - height) / 2, width, height);
+    }
+
+    /**
+     * Return the width in pixels the image must have to not exceed the DPI on the page
+     *
+     * @param pixelWidth width of the image in pixels
+     * @param placement  placement of the image
+     * @param maxDpi     maximum resolution. Null or 0 means no limit
+     * @return the target width, or pixelWidth if the image does not need to be downsampled
+     */
+    static int getTargetWidth(int pixelWidth, Placement placement, Long maxDpi) {
+        if (maxDpi == null || maxDpi <= 0)
+            return pixelWidth;
+        int targetWidth = (int) Math.ceil(placement.width() / POINTS_PER_INCH * maxDpi);
+        return Math.max(1, Math.min(pixelWidth, targetWidth));
+    }
+
+    /**
+     * Effective resolution of the image on the page
+     *
+     * @param pixelWidth width of the image in pixels
+     * @param placement  placement of the image
+     * @return the resolution in DPI
+     */
+    static float getEffectiveDpi(int pixelWidth, Placement placement) {
+        return pixelWidth / (placement.width() / POINTS_PER_INCH);
+    }
+
+    /**
+     * Downsample the image with a bilinear interpolation. To keep the quality, the image is halved step by step, then
+     * resized to the target.
+     *
+     * @param image       image to downsample
+     * @param targetWidth width to reach, the ratio is kept
+     * @return the downsampled image
+     */
+    static BufferedImage downsample(BufferedImage image, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round((float) image.getHeight() * targetWidth / image.getWidth()));
+        int imageType = image.getColorModel().hasAlpha() ?
+                BufferedImage.TYPE_INT_ARGB :
+                (image.getType() == BufferedImage.TYPE_BYTE_GRAY ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Position of the image on the page, in points
+     *
+     * @param pageSize size of the page
+     * @param x        left of the image
+     * @param y        bottom of the image
+     * @param width    width of the image
+     * @param height   height of the image
+     */
+    record Placement(PDRectangle pageSize, float x, float y, float width, float height) {
+    }
+}
@@ -7,24 +7,39 @@ import io.camunda.connector.pdf.PdfInput;
 import io.camunda.connector.pdf.PdfOutput;
 import io.camunda.connector.pdf.sharedfunctions.LoadDocument;
 import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
+import io.camunda.connector.pdf.toolbox.OrderedParallelLoader;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileRepoFactory;
 import io.camunda.filestorage.FileVariable;
 import io.camunda.filestorage.FileVariableReference;
 import io.camunda.filestorage.storage.StorageDefinition;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.multipdf.PDFCloneUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.*;
 
 public class ImageToPdfFunction implements PdfSubFunction {
@@ -32,6 +47,10 @@ public class ImageToPdfFunction implements PdfSubFunction {
     public static final String ERROR_DRAW_IMAGE = "DRAW_IMAGE";
     public static final String ERROR_NO_DESTINATION_STORAGE_DEFINITION_DEFINE = "NO_DESTINATION_STORAGE_DEFINITION";
     public static final String ERROR_DEFINITION_ERROR = "DEFINITION_ERROR";
+    // same quality as JPEGFactory.createFromImage
+    private static final float JPEG_QUALITY = 0.75f;
+    private static final byte[] JPEG_MAGIC_BYTES = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC_BYTES = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
     private static final Map<String, String> listBpmnErrors = new HashMap<>();
 
     static {
@@ -63,7 +82,7 @@ public class ImageToPdfFunction implements PdfSubFunction {
 
         List<FileVariableReference> listImages = new ArrayList<>();
         try {
-            FileVariable defaultDocSource = null;
+            StorageDefinition defaultStorageDefinition = null;
             // ------------------ list of images
             List<Object> listDocSourceReference = pdfInput.getListSourceFile();
             if (listDocSourceReference != null) {
@@ -86,68 +105,91 @@ public class ImageToPdfFunction implements PdfSubFunction {
             // create the PDF now
             FileRepoFactory fileRepoFactory = FileRepoFactory.getInstance();
             int pageNumber = 0;
-            // Loop through each JPEG image file
-            for (FileVariableReference fileVariableReference : listImages) {
-                pageNumber++;
-
-                long timeStep0Begin = System.currentTimeMillis();
-                // Load JPEG image
-                FileVariable fileVariable = LoadDocument.loadDocSourceFromReference(fileVariableReference, fileRepoFactory,
-                        this, outboundConnectorContext);
-
-                long timeStep1LoadFileVariable = System.currentTimeMillis();
-                if (defaultDocSource == null)
-                    defaultDocSource = fileVariable;
-                ByteArrayInputStream bis = new ByteArrayInputStream(fileVariable.getValue());
-                BufferedImage bufferedImage = ImageIO.read(bis);
-                long timeStep2BufferedImage = System.currentTimeMillis();
-
-                PDImageXObject image = JPEGFactory.createFromImage(destinationDocument, bufferedImage);
-                long timeStep3CreateImage = System.currentTimeMillis();
-
-                // Create a new page in the PDF document
-                PDPage page = new PDPage(new PDRectangle(image.getWidth(), image.getHeight()));
-                destinationDocument.addPage(page);
-                long timeStep4AddPage = System.currentTimeMillis();
-
-                // Draw the JPEG image onto the page
-                PDPageContentStream contentStream = null;
-                try {
-                    contentStream = new PDPageContentStream(destinationDocument, page);
-                    contentStream.drawImage(image, 0, 0);
-
-                } catch (Exception e) {
-                    logger.error("{} Exception during draw page {}: {}", PdfToolbox.getLogSignature(this), pageNumber, e);
-                    throw new ConnectorException(ERROR_DRAW_IMAGE, "Error " + e);
-                } finally {
-                    if (contentStream != null)
+            ImageLayout.PageSize pageSize = ImageLayout.getPageSize(pdfInput.getImagePageSize());
+            Long imageMaxDpi = getImageMaxDpi(pdfInput.getImageMaxDpi(), pageSize);
+            // Load, decode and encode the images in parallel. Pages are added one by one, in the order of the list
+            // an image loaded but not used releases its encoding document
+            PDFCloneUtility cloneUtility = new PDFCloneUtility(destinationDocument);
+            try (OrderedParallelLoader<PreparedImage> imageLoader = new OrderedParallelLoader<>(this,
+                    "pdf-image-loader", listImages.size(), (int) pdfInput.getImageParallelism(),
+                    index -> prepareImage(listImages.get(index), pageSize, imageMaxDpi, fileRepoFactory,
+                            outboundConnectorContext),
+                    this::closeEncodingDocument)) {
+                for (int imageIndex = 0; imageIndex < listImages.size(); imageIndex++) {
+                    pageNumber++;
+                    PreparedImage preparedImage = imageLoader.take(imageIndex);
+
+                    long timeStep2TakeImage = System.currentTimeMillis();
+                    if (defaultStorageDefinition == null)
+                        defaultStorageDefinition = preparedImage.storageDefinition();
+
+                    PDImageXObject image;
+                    if (preparedImage.jpegData() != null) {
+                        // the JPEG is already encoded: PDFBox embeds it as it is
+                        image = JPEGFactory.createFromByteArray(destinationDocument, preparedImage.jpegData());
+                    } else {
+                        // the image (and its mask) is encoded in the encoding document: copy the encoded streams
                         try {
-                            contentStream.close();
-                        } catch (Exception e) {
-                            logger.error("{} Exception during close contentStream page {}: {}", PdfToolbox.getLogSignature(this),
-                                    pageNumber, e);
+                            image = new PDImageXObject(new PDStream(
+                                    (COSStream) cloneUtility.cloneForNewDocument(preparedImage.encodedImage())), null);
+                        } finally {
+                            closeEncodingDocument(preparedImage);
                         }
+                    }
+                    long timeStep3CreateImage = System.currentTimeMillis();
+
+                    // Create a new page in the PDF document
+                    ImageLayout.Placement placement = preparedImage.placement();
+                    PDPage page = new PDPage(placement.pageSize());
+                    destinationDocument.addPage(page);
+                    long timeStep4AddPage = System.currentTimeMillis();
+
+                    // Draw the JPEG image onto the page
+                    PDPageContentStream contentStream = null;
+                    try {
+                        contentStream = new PDPageContentStream(destinationDocument, page);
+                        contentStream.drawImage(image, placement.x(), placement.y(), placement.width(),
+                                placement.height());
+
+                    } catch (Exception e) {
+                        logger.error("{} Exception during draw page {}: {}", PdfToolbox.getLogSignature(this), pageNumber, e);
+                        throw new ConnectorException(ERROR_DRAW_IMAGE, "Error " + e);
+                    } finally {
+                        if (contentStream != null)
+                            try {
+                                contentStream.close();
+                            } catch (Exception e) {
+                                logger.error("{} Exception during close contentStream page {}: {}", PdfToolbox.getLogSignature(this),
+                                        pageNumber, e);
+                            }
+                    }
+                    long timeStep5DrawImage = System.currentTimeMillis();
+                    // decoding the image is the parse stage, encoding and placing it in the page the process stage
+                    PdfMetrics.recordStage(this, PdfMetrics.Stage.PARSE, preparedImage.bufferedImageMs());
+                    PdfMetrics.recordStage(this, PdfMetrics.Stage.PROCESS,
+                            preparedImage.encodeMs() + timeStep5DrawImage - timeStep2TakeImage);
+                    logger.debug(
+                            "{} {}/{} Load image[{}] {} LoadFile {} ms, BufferedImage {} ms, Encode {} ms, CreateImage {} ms, AddPage {} ms, CopyImageInPage {} ms, Image WidthxHeight {}x{} ",
+                            PdfToolbox.getLogSignature(this),
+                            pageNumber,
+                            listImages.size(),
+                            preparedImage.name(), preparedImage.imageKind(), preparedImage.loadFileMs(), // Load Image
+                            preparedImage.bufferedImageMs(), // Buffered Image
+                            preparedImage.encodeMs(), // Encode, in parallel
+                            timeStep3CreateImage - timeStep2TakeImage, // Create image
+                            timeStep4AddPage - timeStep3CreateImage, // Add a new page
+                            timeStep5DrawImage - timeStep4AddPage, // Draw the image in the page
+                            image.getWidth(), image.getHeight());
                 }
-                long timeStep5DrawImage = System.currentTimeMillis();
-                logger.debug(
-                        "{} {}/{} Load image[{}] LoadFile {} ms, BufferedImage {} ms, CreateImage {} ms, AddPage {} ms, CopyImageInPage {} ms, Image WidthxHeight {}x{} ",
-                        PdfToolbox.getLogSignature(this),
-                        pageNumber,
-                        listImages.size(),
-                        fileVariable.getName(), timeStep1LoadFileVariable - timeStep0Begin,
-                        // Load Image
-                        timeStep2BufferedImage - timeStep1LoadFileVariable, // Buffered Image
-                        timeStep3CreateImage - timeStep2BufferedImage, // Create image
-                        timeStep4AddPage - timeStep3CreateImage, // Add a new page
-                        timeStep5DrawImage - timeStep4AddPage, // Draw the image in the page
-                        image.getWidth(), image.getHeight());
             }
 
 
+            PdfMetrics.countPages(this, pageNumber);
+
             StorageDefinition destinationStorageDefinition = pdfInput.getDestinationStorageDefinitionObject();
 
-            if (destinationStorageDefinition == null && defaultDocSource != null) {
-                destinationStorageDefinition = defaultDocSource.getStorageDefinition();
+            if (destinationStorageDefinition == null && defaultStorageDefinition != null) {
+                destinationStorageDefinition = defaultStorageDefinition;
             }
 
             if (destinationStorageDefinition == null) {
@@ -181,6 +223,219 @@ public class ImageToPdfFunction implements PdfSubFunction {
         }
     }
 
+    /**
+     * The maximum DPI applies to a page of a fixed size (A4, LETTER). With IMAGE, the page has the size of the image
+     * (one pixel for one point): the image is never downsampled, and a maximum DPI is ignored.
+     *
+     * @param imageMaxDpi maximum DPI given as a parameter
+     * @param pageSize    size of the page
+     * @return the maximum DPI to apply, null for no limit
+     */
+    private Long getImageMaxDpi(Long imageMaxDpi, ImageLayout.PageSize pageSize) {
+        if (imageMaxDpi == null || imageMaxDpi <= 0)
+            return null;
+        if (pageSize == ImageLayout.PageSize.IMAGE) {
+            logger.warn("{} imageMaxDpi [{}] ignored: with imagePageSize IMAGE, the page has the size of the image",
+                    PdfToolbox.getLogSignature(this), imageMaxDpi);
+            return null;
+        }
+        return imageMaxDpi;
+    }
+
+    /**
+     * Load an image and prepare it to be embedded. Called in a thread of the loader.
+     * A JPEG is embedded as it is, without decoding it. A PNG is decoded to be embedded without loss. Any other format is
+     * decoded and encoded in JPEG. A PNG, or an image with transparency, is encoded by PDFBox in a document of its own,
+     * so the encode runs in the loader too. An image with a resolution above the maximum DPI on its page is downsampled.
+     *
+     * @param fileVariableReference    reference of the image
+     * @param pageSize                 size of the page
+     * @param maxDpi                   maximum resolution of the image on the page, null for no limit
+     * @param fileRepoFactory          factory to access the storage
+     * @param outboundConnectorContext context of the task
+     * @return the image prepared
+     * @throws IOException in case of error during the decode or the encode
+     */
+    private PreparedImage prepareImage(FileVariableReference fileVariableReference,
+                                       ImageLayout.PageSize pageSize,
+                                       Long maxDpi,
+                                       FileRepoFactory fileRepoFactory,
+                                       OutboundConnectorContext outboundConnectorContext) throws IOException {
+        long timeStep0Begin = System.currentTimeMillis();
+        FileVariable fileVariable = LoadDocument.loadDocSourceFromReference(fileVariableReference, fileRepoFactory,
+                this, outboundConnectorContext);
+        long timeStep1LoadFileVariable = System.currentTimeMillis();
+
+        byte[] imageContent = fileVariable.getValue();
+        if (startsWith(imageContent, JPEG_MAGIC_BYTES)) {
+            // already a DCT stream: read only the header for the dimensions
+            Dimension dimension = readDimension(imageContent);
+            if (dimension != null) {
+                ImageLayout.Placement placement = ImageLayout.place(dimension.width, dimension.height, pageSize);
+                if (ImageLayout.getTargetWidth(dimension.width, placement, maxDpi) == dimension.width)
+                    return new PreparedImage(fileVariable.getName(), fileVariable.getStorageDefinition(),
+                            ImageKind.JPEG_PASSTHROUGH, imageContent, null, null, placement,
+                            timeStep1LoadFileVariable - timeStep0Begin, 0, 0);
+            }
+            // resolution too high: decode it to downsample it
+        }
+
+        BufferedImage bufferedImage = ImageIO.read(new ByteArrayInputStream(imageContent));
+        if (bufferedImage == null) {
+            logger.error("{} Image[{}] format is not supported", PdfToolbox.getLogSignature(this),
+                    fileVariable.getName());
+            throw new ConnectorException(ERROR_ACCESS_SOURCE_IMAGE,
+                    "Image[" + fileVariable.getName() + "] format is not supported");
+        }
+        // the placement depends on the source size, not on the downsampled size
+        ImageLayout.Placement placement = ImageLayout.place(bufferedImage.getWidth(), bufferedImage.getHeight(),
+                pageSize);
+        int targetWidth = ImageLayout.getTargetWidth(bufferedImage.getWidth(), placement, maxDpi);
+        if (targetWidth < bufferedImage.getWidth()) {
+            logger.debug("{} Image[{}] {} dpi on the page, downsample from {} to {} pixels width",
+                    PdfToolbox.getLogSignature(this), fileVariable.getName(),
+                    (int) ImageLayout.getEffectiveDpi(bufferedImage.getWidth(), placement), bufferedImage.getWidth(),
+                    targetWidth);
+            bufferedImage = ImageLayout.downsample(bufferedImage, targetWidth);
+        }
+        long timeStep2BufferedImage = System.currentTimeMillis();
+
+        ImageKind imageKind;
+        byte[] jpegData = null;
+        PDDocument encodingDocument = null;
+        PDImageXObject encodedImage = null;
+        if (startsWith(imageContent, PNG_MAGIC_BYTES) || bufferedImage.getColorModel().hasAlpha()) {
+            // PDFBox encodes the image (and its mask) in a document: each image has its own, so the encode runs here,
+            // in parallel. The assembly copies the encoded streams in the destination document
+            imageKind = startsWith(imageContent, PNG_MAGIC_BYTES) ? ImageKind.LOSSLESS : ImageKind.JPEG_WITH_MASK;
+            encodingDocument = new PDDocument();
+            try {
+                encodedImage = imageKind == ImageKind.LOSSLESS ?
+                        LosslessFactory.createFromImage(encodingDocument, bufferedImage) :
+                        JPEGFactory.createFromImage(encodingDocument, bufferedImage);
+            } catch (IOException | RuntimeException e) {
+                encodingDocument.close();
+                throw e;
+            }
+        } else {
+            imageKind = ImageKind.JPEG_ENCODED;
+            jpegData = encodeJpeg(bufferedImage);
+        }
+        long timeStep3Encode = System.currentTimeMillis();
+
+        return new PreparedImage(fileVariable.getName(), fileVariable.getStorageDefinition(), imageKind, jpegData,
+                encodingDocument, encodedImage, placement, timeStep1LoadFileVariable - timeStep0Begin,
+                timeStep2BufferedImage - timeStep1LoadFileVariable, timeStep3Encode - timeStep2BufferedImage);
+    }
+
+    /**
+     * Release the encoding document of an image, if it has one
+     *
+     * @param preparedImage image prepared
+     */
+    private void closeEncodingDocument(PreparedImage preparedImage) {
+        if (preparedImage.encodingDocument() == null)
+            return;
+        try {
+            preparedImage.encodingDocument().close();
+        } catch (Exception e) {
+            logger.error("{} during close encoding document of image[{}] {}", PdfToolbox.getLogSignature(this),
+                    preparedImage.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Read the dimensions of an image from its header, without decoding it
+     *
+     * @param imageContent content of the image
+     * @return the dimensions, null if no reader can read the image
+     * @throws IOException in case of error
+     */
+    private static Dimension readDimension(byte[] imageContent) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(
+                new ByteArrayInputStream(imageContent))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext())
+                return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static boolean startsWith(byte[] content, byte[] magicBytes) {
+        if (content == null || content.length < magicBytes.length)
+            return false;
+        for (int i = 0; i < magicBytes.length; i++) {
+            if (content[i] != magicBytes[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Encode an image without transparency in JPEG, as JPEGFactory.createFromImage does
+     *
+     * @param bufferedImage image to encode
+     * @return the JPEG
+     * @throws IOException in case of error
+     */
+    private static byte[] encodeJpeg(BufferedImage bufferedImage) throws IOException {
+        BufferedImage jpegImage = bufferedImage;
+        // JPEG writes gray or RGB images
+        if (bufferedImage.getType() != BufferedImage.TYPE_BYTE_GRAY && bufferedImage.getType() != BufferedImage.TYPE_INT_RGB) {
+            jpegImage = new BufferedImage(bufferedImage.getWidth(), bufferedImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = jpegImage.createGraphics();
+            try {
+                graphics.drawImage(bufferedImage, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(baos)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(jpegImage, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * How an image is embedded in the document
+     * JPEG_PASSTHROUGH: the source is a JPEG, embedded as it is
+     * JPEG_ENCODED: the source is decoded, then encoded in JPEG
+     * LOSSLESS: the source is a PNG, embedded without loss (with its transparency)
+     * JPEG_WITH_MASK: the source has a transparency, PDFBox encodes it in JPEG with a mask
+     * LOSSLESS and JPEG_WITH_MASK are encoded by PDFBox in an encoding document, one per image
+     */
+    private enum ImageKind {JPEG_PASSTHROUGH, JPEG_ENCODED, LOSSLESS, JPEG_WITH_MASK}
+
+    /**
+     * One image ready to be added in the document. jpegData is the JPEG to embed, else encodedImage is the image
+     * encoded in encodingDocument, to be copied in the destination document, then encodingDocument is closed
+     */
+    private record PreparedImage(String name,
+                                 StorageDefinition storageDefinition,
+                                 ImageKind imageKind,
+                                 byte[] jpegData,
+                                 PDDocument encodingDocument,
+                                 PDImageXObject encodedImage,
+                                 ImageLayout.Placement placement,
+                                 long loadFileMs,
+                                 long bufferedImageMs,
+                                 long encodeMs) {
+    }
+
     /**
      * Name of the sub-function
      *
@@ -208,6 +463,27 @@ public class ImageToPdfFunction implements PdfSubFunction {
                         RunnerParameter.Level.REQUIRED, // level
                         "List of FileVariable for the file to convert"),
 
+                new RunnerParameter(PdfInput.IMAGE_PAGE_SIZE, // name
+                        "Page size", // label
+                        String.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Size of each page. Image: the page has the size of the image. A4, Letter: the image is scaled to fit the page") // param
+                        .addChoice(PdfInput.IMAGE_PAGE_SIZE_IMAGE, "Size of the image")
+                        .addChoice(PdfInput.IMAGE_PAGE_SIZE_A4, "A4")
+                        .addChoice(PdfInput.IMAGE_PAGE_SIZE_LETTER, "Letter"),
+
+                new RunnerParameter(PdfInput.IMAGE_MAX_DPI, // name
+                        "Maximum DPI", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Maximum resolution of an image on its page, with a page size A4 or Letter. A larger image is downsampled before it is embedded. Default is no limit"),
+
+                new RunnerParameter(PdfInput.IMAGE_PARALLELISM, // name
+                        "Image parallelism", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Number of images loaded, decoded and encoded in parallel (default is 4)"),
+
                 PdfInput.pdfParameterDestinationFileName,
                 PdfInput.pdfParameterDestinationJsonStorageDefinition,
                 PdfInput.pdfParameterDestinationStorageDefinition,
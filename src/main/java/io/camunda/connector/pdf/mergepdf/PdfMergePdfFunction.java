@@ -9,12 +9,17 @@ import io.camunda.connector.pdf.sharedfunctions.LoadDocument;
 import io.camunda.connector.pdf.sharedfunctions.LoadPdfDocument;
 import io.camunda.connector.pdf.sharedfunctions.RetrieveStorageDefinition;
 import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
+import io.camunda.connector.pdf.toolbox.OrderedParallelLoader;
+import io.camunda.connector.pdf.toolbox.PdfError;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileRepoFactory;
 import io.camunda.filestorage.FileVariable;
 import io.camunda.filestorage.FileVariableReference;
 import io.camunda.filestorage.storage.StorageDefinition;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +46,13 @@ public class PdfMergePdfFunction implements PdfSubFunction {
 
   Logger logger = LoggerFactory.getLogger(PdfMergePdfFunction.class.getName());
 
+  /**
+   * STANDARD: pages are added to the destination, all sources stay open until the destination is saved
+   * INCREMENTAL: pages are copied in the destination (backed by a temporary file), and each source is closed just after:
+   * the memory does not grow with the number of documents
+   */
+  public enum MergeMode {STANDARD, INCREMENTAL}
+
   /**
    * Execute the subfonction
    *
@@ -56,7 +68,7 @@ public class PdfMergePdfFunction implements PdfSubFunction {
     FileRepoFactory fileRepoFactory = FileRepoFactory.getInstance();
 
     PDDocument destinationDocument = null;
-    // PDF Library obliges to keep all documents open until we write the destinationDocument. So, keep it here, and close all at the end
+    // In STANDARD mode, PDF Library obliges to keep all documents open until we write the destinationDocument. So, keep it here, and close all at the end
     List<PDDocument> sourceDocumentsList = new ArrayList<>();
 
     try {
@@ -73,27 +85,55 @@ public class PdfMergePdfFunction implements PdfSubFunction {
       StorageDefinition destinationStorageDefinition = RetrieveStorageDefinition.getStorageDefinition(pdfInput, null,
           false, this);
 
+      LoadPdfDocument.MemoryMode memoryMode = LoadPdfDocument.getMemoryMode(pdfInput.getLoadMemoryMode());
+      MergeMode mergeMode = getMergeMode(pdfInput.getMergeMode());
+
       // Merge
       int nbPagesMerged = 0;
-      destinationDocument = new PDDocument();
-
-      for (FileVariableReference fileVariableReference : fileVariableReferenceList) {
-        FileVariable docFileToAdd = LoadDocument.loadDocSourceFromReference(fileVariableReference, fileRepoFactory,
-            this,outboundConnectorContext);
-
-        if (destinationStorageDefinition == null)
-          destinationStorageDefinition = docFileToAdd.getStorageDefinition();
-
-        PDDocument docSourcePDF = LoadPdfDocument.loadPdfDocument(docFileToAdd, this);
-        sourceDocumentsList.add(docSourcePDF);
+      // the sources are loaded in parallel: only the time spent to assemble them is the process stage
+      long processMs = 0;
+      PDFMergerUtility pdfMergerUtility = new PDFMergerUtility();
+      destinationDocument = mergeMode == MergeMode.INCREMENTAL ?
+          new PDDocument(MemoryUsageSetting.setupTempFileOnly()) :
+          new PDDocument();
+
+      // sources are fetched and parsed in parallel, then assembled one by one in the order of the list
+      try (OrderedParallelLoader<LoadedSource> sourceLoader = new OrderedParallelLoader<>(this, "pdf-merge-loader",
+          fileVariableReferenceList.size(), (int) pdfInput.getMergeParallelism(),
+          index -> loadSource(fileVariableReferenceList.get(index), memoryMode, fileRepoFactory,
+              outboundConnectorContext), loadedSource -> closeDocument(loadedSource.document()))) {
+        for (int sourceIndex = 0; sourceIndex < fileVariableReferenceList.size(); sourceIndex++) {
+          LoadedSource loadedSource = sourceLoader.take(sourceIndex);
+          PDDocument docSourcePDF = loadedSource.document();
+
+          if (destinationStorageDefinition == null)
+            destinationStorageDefinition = loadedSource.storageDefinition();
+
+          long beginAssemble = System.currentTimeMillis();
+          if (mergeMode == MergeMode.INCREMENTAL) {
+            // pages are copied in the destination: the source can be closed now
+            try {
+              nbPagesMerged += docSourcePDF.getNumberOfPages();
+              pdfMergerUtility.appendDocument(destinationDocument, docSourcePDF);
+            } finally {
+              docSourcePDF.close();
+            }
+            processMs += System.currentTimeMillis() - beginAssemble;
+            continue;
+          }
+          sourceDocumentsList.add(docSourcePDF);
 
-        // add all pages from sources
-        for (int pageIndex = 0; pageIndex < docSourcePDF.getNumberOfPages(); pageIndex++) {
-          // getPage starts at 0, pageIndex start at 1
-          destinationDocument.addPage(docSourcePDF.getPage(pageIndex));
-          nbPagesMerged++;
+          // add all pages from sources
+          for (int pageIndex = 0; pageIndex < docSourcePDF.getNumberOfPages(); pageIndex++) {
+            // getPage starts at 0, pageIndex start at 1
+            destinationDocument.addPage(docSourcePDF.getPage(pageIndex));
+            nbPagesMerged++;
+          }
+          processMs += System.currentTimeMillis() - beginAssemble;
         }
       } // end merge
+      PdfMetrics.recordStage(this, PdfMetrics.Stage.PROCESS, processMs);
+      PdfMetrics.countPages(this, nbPagesMerged);
 
       // if the destination is null here, there is a issue
       if (destinationStorageDefinition == null) {
@@ -108,8 +148,8 @@ public class PdfMergePdfFunction implements PdfSubFunction {
       PdfOutput pdfOutput = SavePdfDocument.savePdfFile(new PdfOutput(), destinationDocument, destinationFileName,
           destinationStorageDefinition, fileRepoFactory, this,outboundConnectorContext);
 
-      logger.info("{} merge {} pages from {} documents to [{}]", PdfToolbox.getLogSignature(this), nbPagesMerged,
-          fileVariableReferenceList.size(), destinationFileName);
+      logger.info("{} merge {} pages from {} documents to [{}] mode {}", PdfToolbox.getLogSignature(this),
+          nbPagesMerged, fileVariableReferenceList.size(), destinationFileName, mergeMode);
       return pdfOutput;
     } catch (ConnectorException ce) {
       // already logged
@@ -137,6 +177,60 @@ public class PdfMergePdfFunction implements PdfSubFunction {
   }
 
 
+  /**
+   * Fetch and parse one source. Called in a thread of the loader.
+   *
+   * @param fileVariableReference    reference of the source
+   * @param memoryMode               memory mode to parse the source
+   * @param fileRepoFactory          factory to access the storage
+   * @param outboundConnectorContext context of the task
+   * @return the source loaded
+   */
+  private LoadedSource loadSource(FileVariableReference fileVariableReference,
+                                  LoadPdfDocument.MemoryMode memoryMode,
+                                  FileRepoFactory fileRepoFactory,
+                                  OutboundConnectorContext outboundConnectorContext) {
+    FileVariable docFileToAdd = LoadDocument.loadDocSourceFromReference(fileVariableReference, fileRepoFactory, this,
+        outboundConnectorContext);
+    PDDocument document = LoadPdfDocument.loadPdfDocument(docFileToAdd, memoryMode, this);
+    return new LoadedSource(docFileToAdd.getStorageDefinition(), document);
+  }
+
+  private static void closeDocument(PDDocument document) {
+    try {
+      document.close();
+    } catch (Exception e) {
+      // don't care
+    }
+  }
+
+  /**
+   * Decode the merge mode given as a parameter
+   *
+   * @param mergeModeSt merge mode. Null or empty means STANDARD
+   * @return the merge mode
+   * @throws ConnectorException if the value is unknown
+   */
+  private static MergeMode getMergeMode(String mergeModeSt) throws ConnectorException {
+    if (mergeModeSt == null || mergeModeSt.trim().isEmpty())
+      return MergeMode.STANDARD;
+    try {
+      return MergeMode.valueOf(mergeModeSt.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Merge mode [" + mergeModeSt + "] is unknown, expected " + Arrays.toString(MergeMode.values()));
+    }
+  }
+
+  /**
+   * One source loaded
+   *
+   * @param storageDefinition storage definition of the source
+   * @param document          document parsed
+   */
+  private record LoadedSource(StorageDefinition storageDefinition, PDDocument document) {
+  }
+
   public String getSubFunctionName() {
     return "Merge documents";
   }
@@ -163,6 +257,21 @@ public class PdfMergePdfFunction implements PdfSubFunction {
                     RunnerParameter.Level.OPTIONAL, // level
                     "List of FileVariable for the file to convert"),
 
+            new RunnerParameter(PdfInput.MERGE_MODE, // name
+                "Merge mode", // label
+                String.class, // class
+                RunnerParameter.Level.OPTIONAL, // level
+                "Incremental: each source is closed after its pages are copied, the memory does not grow with the number of documents") // param
+                .addChoice(PdfInput.MERGE_MODE_STANDARD, "Standard")
+                .addChoice(PdfInput.MERGE_MODE_INCREMENTAL, "Incremental"),
+
+            new RunnerParameter(PdfInput.MERGE_PARALLELISM, // name
+                "Load parallelism", // label
+                Long.class, // class
+                RunnerParameter.Level.OPTIONAL, // level
+                "Number of source documents fetched and parsed in parallel (default is 4)"),
+
+            PdfInput.pdfParameterLoadMemoryMode,
             PdfInput.pdfParameterDestinationFileName,
             PdfInput.pdfParameterDestinationJsonStorageDefinition,
             PdfInput.pdfParameterDestinationStorageDefinition,
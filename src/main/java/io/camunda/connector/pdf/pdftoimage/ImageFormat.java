@@ -0,0 +1,191 @@
+package io.camunda.connector.pdf.pdftoimage;
+
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.pdf.toolbox.PdfError;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Format of the images produced. Each format knows how to encode a rendered page.
+ * PNG: lossless, the deflate level can be set
+ * PNG_PALETTE: 8-bit palette PNG (256 colors), much smaller for text and drawings
+ * JPEG: lossy, the quality can be set. Good for scanned pages
+ * TIFF_G4: black and white TIFF, CCITT Group 4 compression. Smallest for text pages, used by archive systems
+ */
+public enum ImageFormat {
+  PNG("png") {
+    @Override
+    byte[] encode(BufferedImage image, EncodingSettings encodingSettings) throws IOException {
+      return write(image, "png", param -> {
+        if (encodingSettings.pngCompressionLevel() != null)
+          setCompressionQuality(param, 1f - encodingSettings.pngCompressionLevel() / 9f);
+      });
+    }
+  },
+  PNG_PALETTE("png") {
+    @Override
+    byte[] encode(BufferedImage image, EncodingSettings encodingSettings) throws IOException {
+      return PNG.encode(convert(image, BufferedImage.TYPE_BYTE_INDEXED), encodingSettings);
+    }
+  },
+  JPEG("jpg") {
+    @Override
+    byte[] encode(BufferedImage image, EncodingSettings encodingSettings) throws IOException {
+      // JPEG supports only gray or RGB images, without transparency
+      BufferedImage jpegImage = image.getType() == BufferedImage.TYPE_BYTE_GRAY ?
+          image :
+          convert(image, BufferedImage.TYPE_INT_RGB);
+      return write(jpegImage, "jpeg",
+          param -> setCompressionQuality(param, encodingSettings.jpegQuality() / 100f));
+    }
+  },
+  TIFF_G4("tif") {
+    @Override
+    byte[] encode(BufferedImage image, EncodingSettings encodingSettings) throws IOException {
+      // CCITT T.6 accepts only bilevel images
+      return write(convert(image, BufferedImage.TYPE_BYTE_BINARY), "tiff", param -> {
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionType("CCITT T.6");
+      });
+    }
+  };
+
+  public static final int DEFAULT_JPEG_QUALITY = 85;
+
+  private final String extension;
+
+  ImageFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Decode the format given as a parameter
+   *
+   * @param formatSt format. Null or empty means PNG
+   * @return the format
+   * @throws ConnectorException if the value is unknown
+   */
+  public static ImageFormat getImageFormat(String formatSt) throws ConnectorException {
+    if (formatSt == null || formatSt.trim().isEmpty())
+      return PNG;
+    try {
+      return ImageFormat.valueOf(formatSt.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Image format [" + formatSt + "] is unknown, expected " + Arrays.toString(ImageFormat.values()));
+    }
+  }
+
+  /**
+   * Build the encoding settings from the parameters
+   *
+   * @param pngCompressionLevel deflate level, 0 (no compression) to 9 (best compression). Null means the default level
+   * @param jpegQuality         JPEG quality, 1 to 100. Null means DEFAULT_JPEG_QUALITY
+   * @return the settings
+   * @throws ConnectorException if a value is out of range
+   */
+  public static EncodingSettings getEncodingSettings(Long pngCompressionLevel, Long jpegQuality)
+      throws ConnectorException {
+    if (pngCompressionLevel != null && (pngCompressionLevel < 0 || pngCompressionLevel > 9))
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Image compression level [" + pngCompressionLevel + "] must be between 0 and 9");
+    if (jpegQuality != null && (jpegQuality < 1 || jpegQuality > 100))
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Image quality [" + jpegQuality + "] must be between 1 and 100");
+    return new EncodingSettings(pngCompressionLevel == null ? null : pngCompressionLevel.intValue(),
+        jpegQuality == null ? DEFAULT_JPEG_QUALITY : jpegQuality.intValue());
+  }
+
+  /**
+   * @return the extension of the file, without the dot
+   */
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Encode the image
+   *
+   * @param image            page rendered
+   * @param encodingSettings settings
+   * @return the content of the file
+   * @throws IOException in case of error
+   */
+  abstract byte[] encode(BufferedImage image, EncodingSettings encodingSettings) throws IOException;
+
+  /**
+   * Write the image with the first ImageIO writer for the format
+   *
+   * @param image         image to write
+   * @param formatName    ImageIO format name
+   * @param configuration complete the write parameters
+   * @return the content of the file
+   * @throws IOException in case of error, or if no writer exists for the format
+   */
+  private static byte[] write(BufferedImage image, String formatName, Consumer<ImageWriteParam> configuration)
+      throws IOException {
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+    if (!writers.hasNext())
+      throw new IOException("No image writer for format [" + formatName + "]");
+    ImageWriter writer = writers.next();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (MemoryCacheImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(baos)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      configuration.accept(param);
+      writer.setOutput(imageOutputStream);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return baos.toByteArray();
+  }
+
+  private static void setCompressionQuality(ImageWriteParam param, float quality) {
+    if (!param.canWriteCompressed())
+      return;
+    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    if (param.getCompressionType() == null && param.getCompressionTypes() != null)
+      param.setCompressionType(param.getCompressionTypes()[0]);
+    param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+  }
+
+  /**
+   * Draw the image in a new image of the type. Return the image itself if it already has this type.
+   *
+   * @param image     image to convert
+   * @param imageType BufferedImage type
+   * @return the converted image
+   */
+  private static BufferedImage convert(BufferedImage image, int imageType) {
+    if (image.getType() == imageType)
+      return image;
+    BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), imageType);
+    Graphics2D graphics = converted.createGraphics();
+    try {
+      graphics.drawImage(image, 0, 0, null);
+    } finally {
+      graphics.dispose();
+    }
+    return converted;
+  }
+
+  /**
+   * Settings for the encoders
+   *
+   * @param pngCompressionLevel deflate level for PNG formats, null for the writer default
+   * @param jpegQuality         quality for JPEG, 1 to 100
+   */
+  public record EncodingSettings(Integer pngCompressionLevel, int jpegQuality) {
+  }
+}
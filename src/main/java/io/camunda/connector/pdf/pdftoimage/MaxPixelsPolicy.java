@@ -0,0 +1,33 @@
+package io.camunda.connector.pdf.pdftoimage;
+
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.pdf.toolbox.PdfError;
+
+import java.util.Arrays;
+
+/**
+ * What to do when a page at the requested DPI exceeds the maximum number of pixels per page.
+ * ADAPT_DPI: the page is rendered at a lower DPI
+ * FAIL: the function throws PAGE_TOO_LARGE before any page is rendered
+ */
+public enum MaxPixelsPolicy {
+  ADAPT_DPI, FAIL;
+
+  /**
+   * Decode the policy given as a parameter
+   *
+   * @param policySt policy. Null or empty means ADAPT_DPI
+   * @return the policy
+   * @throws ConnectorException if the value is unknown
+   */
+  public static MaxPixelsPolicy getMaxPixelsPolicy(String policySt) throws ConnectorException {
+    if (policySt == null || policySt.trim().isEmpty())
+      return ADAPT_DPI;
+    try {
+      return MaxPixelsPolicy.valueOf(policySt.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Max pixels policy [" + policySt + "] is unknown, expected " + Arrays.toString(MaxPixelsPolicy.values()));
+    }
+  }
+}
@@ -10,27 +10,32 @@ import io.camunda.connector.pdf.sharedfunctions.LoadPdfDocument;
 import io.camunda.connector.pdf.sharedfunctions.RetrieveStorageDefinition;
 import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
 import io.camunda.connector.pdf.toolbox.ExtractPageExpression;
+import io.camunda.connector.pdf.toolbox.PdfConfiguration;
+import io.camunda.connector.pdf.toolbox.PdfError;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileRepoFactory;
 import io.camunda.filestorage.FileVariable;
 import io.camunda.filestorage.storage.StorageDefinition;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class PdfToImageFunction implements PdfSubFunction {
     public static final String ERROR_NO_DESTINATION_STORAGE_DEFINITION_DEFINE = "ERROR_NO_DESTINATION_STORAGE_DEFINITION_DEFINE";
     public static final String ERROR_DRAW_IMAGE = "ERROR_DRAW_IMAGE";
+    public static final String ERROR_PAGE_TOO_LARGE = "PAGE_TOO_LARGE";
+    public static final String ERROR_PAGE_TOO_LARGE_LABEL = "A page at the requested DPI exceeds the maximum number of pixels per page";
+    /**
+     * Maximum number of render workers of one job. Default is the number of processors
+     */
+    public static final String MAX_RENDER_PARALLELISM = "pdf.pdf-to-images.max-render-parallelism";
+    private static final float PDF_POINTS_PER_INCH = 72f;
     private static final Map<String, String> listBpmnErrors = new HashMap<>();
 
     static {
@@ -39,6 +44,7 @@ public class PdfToImageFunction implements PdfSubFunction {
         listBpmnErrors.putAll(ExtractPageExpression.getBpmnErrorExtractExpression());
         listBpmnErrors.putAll(SavePdfDocument.getBpmnErrors());
         listBpmnErrors.put(PdfToolbox.ERROR_DURING_OPERATION, PdfToolbox.ERROR_DURING_OPERATION_LABEL);
+        listBpmnErrors.put(ERROR_PAGE_TOO_LARGE, ERROR_PAGE_TOO_LARGE_LABEL);
     }
 
     private final Logger logger = LoggerFactory.getLogger(PdfToImageFunction.class.getName());
@@ -55,6 +61,7 @@ public class PdfToImageFunction implements PdfSubFunction {
 
         FileRepoFactory fileRepoFactory = FileRepoFactory.getInstance();
         PDDocument docSourcePDF = null;
+        List<PDDocument> workerDocuments = new ArrayList<>();
 
         try {
             FileVariable docSource = LoadDocument.loadDocSource(pdfInput.getSourceFile(), fileRepoFactory, this, outboundConnectorContext);
@@ -65,60 +72,59 @@ public class PdfToImageFunction implements PdfSubFunction {
                     docSource, true, this);
 
             // get the file
-            docSourcePDF = LoadPdfDocument.loadPdfDocument(docSource, this);
+            LoadPdfDocument.MemoryMode memoryMode = LoadPdfDocument.getMemoryMode(pdfInput.getLoadMemoryMode());
+            docSourcePDF = LoadPdfDocument.loadPdfDocument(docSource, memoryMode, this);
             logger.info("{} Document[{}] loaded {} pages", PdfToolbox.getLogSignature(this), docSource.getName(), docSourcePDF.getNumberOfPages());
 
-            PDFRenderer pdfRenderer = new PDFRenderer(docSourcePDF);
-
             ExtractPageExpression extractPageExpression = new ExtractPageExpression(pdfInput.getExtractExpression(),
                     docSourcePDF, this);
 
-            // add all pages from sources
-            PdfOutput pdfOutput = new PdfOutput();
-
-            for (int pageIndex = 0; pageIndex < docSourcePDF.getNumberOfPages(); pageIndex++) {
-                if (!extractPageExpression.isPageInRange(pageIndex + 1)) {
-                    logger.info("{} Document[{}] Page {}/{} Not in expression", PdfToolbox.getLogSignature(this), (pageIndex + 1),
-                            docSource.getName(),
-                            docSourcePDF.getNumberOfPages());
-                    continue;
+            // Check the pixel budget of all pages before rendering: fail fast on a too large page
+            MaxPixelsPolicy maxPixelsPolicy = MaxPixelsPolicy.getMaxPixelsPolicy(pdfInput.getMaxPixelsPolicy());
+            List<PdfToImagePipeline.PageRequest> listPages = new ArrayList<>();
+            for (int pageIndex : extractPageExpression.getSelectedPageIndexes()) {
+                listPages.add(new PdfToImagePipeline.PageRequest(pageIndex,
+                        getPageDpi(docSourcePDF.getPage(pageIndex), pageIndex, pdfInput.getDpi(),
+                                pdfInput.getMaxPixelsPerPage(), maxPixelsPolicy, docSource.getName())));
+            }
+
+            RenderingProfile renderingProfile = RenderingProfile.getRenderingProfile(pdfInput.getRenderProfile());
+            boolean skipAnnotations = Boolean.TRUE.equals(pdfInput.getRenderSkipAnnotations());
+            ImageFormat imageFormat = ImageFormat.getImageFormat(pdfInput.getImageFormat());
+            ImageFormat.EncodingSettings encodingSettings = ImageFormat.getEncodingSettings(
+                    pdfInput.getImageCompressionLevel(), pdfInput.getImageQuality());
+            int stripHeight = getStripHeight(pdfInput, imageFormat);
+
+            PdfToImagePipeline.PageContext pageContext = new PdfToImagePipeline.PageContext(docSource,
+                    docSourcePDF.getNumberOfPages(), renderingProfile.getImageType(),
+                    imageFormat, encodingSettings, stripHeight, destinationStorageDefinition, fileRepoFactory, outboundConnectorContext);
+
+            // One renderer per render worker: PDFBox is not thread-safe, each worker renders with its own document,
+            // loaded from the same source. The first worker uses the document already loaded.
+            int parallelism = getRenderParallelism(pdfInput, listPages.size(), docSource.getName());
+            List<PdfToImagePipeline.RenderWorker> renderers = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                PDDocument workerDocument = docSourcePDF;
+                if (i > 0) {
+                    workerDocument = LoadPdfDocument.loadPdfDocument(docSource, memoryMode, this);
+                    workerDocuments.add(workerDocument);
                 }
-                long timeStep0Begin = System.currentTimeMillis();
-
-                // Render PDF page to BufferedImage
-                logger.debug("{} Document[{}] Start render page [{}/{}] at [{}] dpi", PdfToolbox.getLogSignature(this), docSource.getName(),
-                        pageIndex+1,
-                        docSourcePDF.getNumberOfPages(),pdfInput.getDpi());
-
-                BufferedImage image = pdfRenderer.renderImageWithDPI(pageIndex, pdfInput.getDpi()); // 300 DPI
-                long timeStep1Rendering = System.currentTimeMillis();
-
-                // Convert BufferedImage to byte array
-                logger.debug("{} Document[{}] Start write image hxw [{}x{}]", PdfToolbox.getLogSignature(this), docSource.getName(), image.getHeight(), image.getWidth());
-
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ImageIO.write(image, "png", baos);
-                byte[] imageData = baos.toByteArray();
-                long timeStep2WriteToByte = System.currentTimeMillis();
-
-                FileVariable fileVariableOut = new FileVariable();
-
-                fileVariableOut.setValue(baos.toByteArray());
-                fileVariableOut.setName(PdfToolbox.getDocumentName(docSource, true) + "_" + (pageIndex + 1) + ".png");
-                fileVariableOut.setStorageDefinition(destinationStorageDefinition);
-                logger.debug("{} Document[{}] Start save file to storage[{}]", PdfToolbox.getLogSignature(this), docSource.getName(), destinationStorageDefinition.getInformation());
-
-                SavePdfDocument.saveFile(pdfOutput, fileVariableOut, fileRepoFactory, this, outboundConnectorContext);
-
-                long timeStep3WriteFile = System.currentTimeMillis();
-                logger.info("{} Document[{}] Page [{}/{}] Render {} ms, WriteImage {} ms, WriteFile {} ms imageSize {} Ko",
-                        PdfToolbox.getLogSignature(this),
-                        docSource.getName(),
-                        (pageIndex + 1), docSourcePDF.getNumberOfPages(),
-                        timeStep1Rendering - timeStep0Begin, // Rendering
-                        timeStep2WriteToByte - timeStep1Rendering, // Write Image
-                        timeStep3WriteFile - timeStep2WriteToByte, imageData.length / 1024); // Save Image
-            } // end loop each page
+                PDFRenderer pdfRenderer = new PDFRenderer(workerDocument);
+                renderingProfile.configure(pdfRenderer, skipAnnotations);
+                renderers.add(new PdfToImagePipeline.RenderWorker(workerDocument, pdfRenderer));
+            }
+            logger.info("{} Document[{}] Render {} pages with {} workers, profile {} skipAnnotations {} stripHeight {}",
+                    PdfToolbox.getLogSignature(this), docSource.getName(), listPages.size(), parallelism,
+                    renderingProfile, skipAnnotations, stripHeight);
+
+            PdfToImagePipeline pipeline = new PdfToImagePipeline(this, pageContext, renderers,
+                    (int) pdfInput.getRenderQueueSize());
+
+            // add all pages from sources, in the page order
+            PdfOutput pdfOutput = new PdfOutput();
+            for (String reference : pipeline.run(listPages)) {
+                pdfOutput.addDestinationFileInList(reference);
+            }
             return pdfOutput;
         } catch (ConnectorException ce) {
             // already logged
@@ -127,6 +133,13 @@ public class PdfToImageFunction implements PdfSubFunction {
             logger.error("{} During operation : ", PdfToolbox.getLogSignature(this), e);
             throw new ConnectorException(PdfToolbox.ERROR_DURING_OPERATION, "Error " + e);
         } finally {
+            for (PDDocument workerDocument : workerDocuments) {
+                try {
+                    workerDocument.close();
+                } catch (Exception e) {
+                    logger.error("{} During close worker document : {}", PdfToolbox.getLogSignature(this), e.getMessage());
+                }
+            }
             if (docSourcePDF != null)
                 try {
                     docSourcePDF.close();
@@ -138,6 +151,92 @@ public class PdfToImageFunction implements PdfSubFunction {
     }
 
 
+    /**
+     * Each worker loads its own copy of the document: the parallelism is limited by the number of pages, and by
+     * the maximum of the connector (MAX_RENDER_PARALLELISM)
+     *
+     * @param pdfInput     input
+     * @param nbPages      number of pages to render
+     * @param documentName name of the document, for the log
+     * @return the number of render workers
+     */
+    private int getRenderParallelism(PdfInput pdfInput, int nbPages, String documentName) {
+        long maxParallelism = Math.max(PdfConfiguration.getLong(MAX_RENDER_PARALLELISM,
+                Runtime.getRuntime().availableProcessors()), 1);
+        long parallelism = pdfInput.getRenderParallelism();
+        if (parallelism > maxParallelism) {
+            logger.info("{} Document[{}] renderParallelism {} clamped to {} ({})", PdfToolbox.getLogSignature(this),
+                    documentName, parallelism, maxParallelism, MAX_RENDER_PARALLELISM);
+            parallelism = maxParallelism;
+        }
+        return (int) Math.max(Math.min(parallelism, nbPages), 1);
+    }
+
+    /**
+     * Return the height of a strip in tiled mode
+     *
+     * @param pdfInput    input
+     * @param imageFormat format of the images
+     * @return the strip height, 0 if the tiled mode is not used
+     * @throws ConnectorException if the tiled mode is requested with a format other than PNG
+     */
+    private int getStripHeight(PdfInput pdfInput, ImageFormat imageFormat) throws ConnectorException {
+        if (!Boolean.TRUE.equals(pdfInput.getRenderTiled()))
+            return 0;
+        if (imageFormat != ImageFormat.PNG)
+            throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+                    "Tiled rendering produces PNG images only, format [" + imageFormat + "] is not supported");
+        if (pdfInput.getRenderStripHeight() < 1)
+            throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+                    "Strip height [" + pdfInput.getRenderStripHeight() + "] must be greater than 0");
+        return (int) pdfInput.getRenderStripHeight();
+    }
+
+    /**
+     * Return the DPI to render the page. If the page at the requested DPI exceeds the maximum number of pixels, the DPI
+     * is lowered to fit the budget, or the page is rejected.
+     *
+     * @param page             page to render
+     * @param pageIndex        index of the page, start at 0
+     * @param requestedDpi     DPI requested
+     * @param maxPixelsPerPage maximum number of pixels for one image. Null or 0 means no limit
+     * @param maxPixelsPolicy  FAIL: a page too large throws an error, ADAPT_DPI: the DPI is lowered
+     * @param documentName     name of the document, for the log
+     * @return the DPI to use for this page
+     * @throws ConnectorException if the page is too large and the policy is to fail
+     */
+    private float getPageDpi(PDPage page,
+                             int pageIndex,
+                             Long requestedDpi,
+                             Long maxPixelsPerPage,
+                             MaxPixelsPolicy maxPixelsPolicy,
+                             String documentName) throws ConnectorException {
+        float dpi = requestedDpi.floatValue();
+        if (maxPixelsPerPage == null || maxPixelsPerPage <= 0)
+            return dpi;
+        // PDFRenderer renders the crop box, at dpi/72 pixels per point
+        PDRectangle cropBox = page.getCropBox();
+        double pixels = (cropBox.getWidth() * dpi / PDF_POINTS_PER_INCH) * (cropBox.getHeight() * dpi
+                / PDF_POINTS_PER_INCH);
+        if (pixels <= maxPixelsPerPage)
+            return dpi;
+
+        // the number of pixels is proportional to the square of the DPI
+        float adaptedDpi = (float) Math.floor(dpi * Math.sqrt(maxPixelsPerPage / pixels));
+        if (maxPixelsPolicy == MaxPixelsPolicy.FAIL || adaptedDpi < 1) {
+            logger.error("{} Document[{}] Page [{}] {}x{} points at {} dpi needs {} pixels, maximum is {}",
+                    PdfToolbox.getLogSignature(this), documentName, pageIndex + 1, cropBox.getWidth(),
+                    cropBox.getHeight(), dpi, (long) pixels, maxPixelsPerPage);
+            throw new ConnectorException(ERROR_PAGE_TOO_LARGE,
+                    "Page " + (pageIndex + 1) + " at " + dpi + " dpi needs " + (long) pixels + " pixels, maximum is "
+                            + maxPixelsPerPage);
+        }
+        logger.info("{} Document[{}] Page [{}] too large at {} dpi ({} pixels, maximum {}): render at {} dpi",
+                PdfToolbox.getLogSignature(this), documentName, pageIndex + 1, dpi, (long) pixels, maxPixelsPerPage,
+                adaptedDpi);
+        return adaptedDpi;
+    }
+
     @Override
     public List<RunnerParameter> getInputsParameter() {
         return Arrays.asList(new RunnerParameter(PdfInput.SOURCE_FILE, // name
@@ -150,7 +249,7 @@ public class PdfToImageFunction implements PdfSubFunction {
                         "Extract Expression", // label
                         String.class, // class
                         RunnerParameter.Level.REQUIRED, // level
-                        "Extract pilot: example, 2-4 mean extract pages 2 to 4 (document page start at 1). Use \u0027n\u0027 to specify the end of the document (2-n) extract from page 2 to the end. Simple number is accepted to extract a page. Example: 4-5, 10, 15-n or 2-n, 1 (first page to the end)"),
+                        "Extract pilot: example, 2-4 mean extract pages 2 to 4 (document page start at 1). Use \u0027n\u0027 to specify the end of the document (2-n) extract from page 2 to the end, rK the K-th page from the end (r1 is the last page). Simple number is accepted to extract a page. Add :odd or :even to keep odd or even pages, /K to keep one page every K pages. Example: 4-5, 10, 15-n, r3-n, 1-n:odd, 1-n/5"),
 
                 new RunnerParameter(PdfInput.PDFTOIMAGE_DPI, // name
                         "Dpi", // label
@@ -158,6 +257,83 @@ public class PdfToImageFunction implements PdfSubFunction {
                         RunnerParameter.Level.OPTIONAL, // level
                         "Each page will be convert to an image. Specify the DPI for the generation (default is 300 dpi)"),
 
+                new RunnerParameter(PdfInput.PDFTOIMAGE_MAX_PIXELS_PER_PAGE, // name
+                        "Max pixels per page", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Maximum number of pixels for one image (width x height). Protect the memory against very large pages. Default is no limit"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_MAX_PIXELS_POLICY, // name
+                        "Too large page policy", // label
+                        String.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "When a page exceeds the maximum number of pixels: lower the DPI for this page, or fail") // param
+                        .addChoice(PdfInput.PDFTOIMAGE_MAX_PIXELS_POLICY_ADAPT_DPI, "Lower the DPI")
+                        .addChoice(PdfInput.PDFTOIMAGE_MAX_PIXELS_POLICY_FAIL, "Fail"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_RENDER_TILED, // name
+                        "Tiled rendering", // label
+                        Boolean.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Render each page in strips, written directly in the PNG: the memory depends on the strip height, not on the page size. PNG format only"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_RENDER_STRIP_HEIGHT, // name
+                        "Strip height", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Tiled rendering: height of a strip in pixels (default is 256)"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_IMAGE_FORMAT, // name
+                        "Image format", // label
+                        String.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Format of the images (default is PNG). JPEG is smaller for scanned pages, TIFF G4 for black and white text pages") // param
+                        .addChoice(PdfInput.PDFTOIMAGE_IMAGE_FORMAT_PNG, "PNG")
+                        .addChoice(PdfInput.PDFTOIMAGE_IMAGE_FORMAT_PNG_PALETTE, "PNG 8-bit palette")
+                        .addChoice(PdfInput.PDFTOIMAGE_IMAGE_FORMAT_JPEG, "JPEG")
+                        .addChoice(PdfInput.PDFTOIMAGE_IMAGE_FORMAT_TIFF_G4, "TIFF Group 4 (black and white)"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_IMAGE_COMPRESSION_LEVEL, // name
+                        "PNG compression level", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "PNG formats: deflate level, 0 (fast, large file) to 9 (slow, small file)"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_IMAGE_QUALITY, // name
+                        "JPEG quality", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "JPEG format: quality, 1 to 100 (default is " + ImageFormat.DEFAULT_JPEG_QUALITY + ")"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_RENDER_PROFILE, // name
+                        "Rendering profile", // label
+                        String.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Quality of the rendering. Draft profiles are faster and produce smaller images (OCR, thumbnails)") // param
+                        .addChoice(PdfInput.PDFTOIMAGE_RENDER_PROFILE_STANDARD, "Standard (color)")
+                        .addChoice(PdfInput.PDFTOIMAGE_RENDER_PROFILE_GRAY_DRAFT, "Gray draft")
+                        .addChoice(PdfInput.PDFTOIMAGE_RENDER_PROFILE_BINARY_DRAFT, "Black and white draft")
+                        .addChoice(PdfInput.PDFTOIMAGE_RENDER_PROFILE_THUMBNAIL, "Thumbnail"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_RENDER_SKIP_ANNOTATIONS, // name
+                        "Skip annotations", // label
+                        Boolean.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Do not render the annotations (comments, stamps, form fields)"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_RENDER_PARALLELISM, // name
+                        "Render parallelism", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Number of pages rendered in parallel (default is 1), limited to the number of processors. Each worker loads its own copy of the document"),
+
+                new RunnerParameter(PdfInput.PDFTOIMAGE_RENDER_QUEUE_SIZE, // name
+                        "Render queue size", // label
+                        Long.class, // class
+                        RunnerParameter.Level.OPTIONAL, // level
+                        "Render, image writing and save run in parallel. Maximum number of pages waiting between two steps (default is 2): limit the number of images in memory"),
+
+                PdfInput.pdfParameterLoadMemoryMode,
                 PdfInput.pdfParameterDestinationFileName,
                 PdfInput.pdfParameterDestinationJsonStorageDefinition,
                 PdfInput.pdfParameterDestinationStorageDefinition,
@@ -0,0 +1,359 @@
+package io.camunda.connector.pdf.pdftoimage;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  PdfToImagePipeline                                                  */
+/*                                                                      */
+/*  Pages go through three stages: render, encode, store. Each stage    */
+/*  runs in its own thread(s), with a bounded queue between two stages: */
+/*  page N+1 renders while page N encodes and page N-1 is stored.       */
+/*  In tiled mode, a page renders strip by strip, directly encoded in   */
+/*  PNG: the render stage produces the image file.                      */
+/* ******************************************************************** */
+
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
+import io.camunda.connector.pdf.toolbox.PdfSubFunction;
+import io.camunda.connector.pdf.toolbox.PdfToolbox;
+import io.camunda.filestorage.FileRepoFactory;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.storage.StorageDefinition;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+class PdfToImagePipeline {
+  private static final Logger logger = LoggerFactory.getLogger(PdfToImagePipeline.class.getName());
+
+  private static final long STAGE_POLL_MS = 200;
+  private static final long STAGE_TERMINATION_TIMEOUT_SECONDS = 30;
+
+  private final PdfSubFunction subFunction;
+  private final PageContext pageContext;
+  private final List<RenderWorker> renderers;
+  private final int queueSize;
+
+  // encode statistics, to tune the format and its settings
+  private final AtomicLong encodeTotalMs = new AtomicLong(0);
+  private final AtomicLong encodeTotalBytes = new AtomicLong(0);
+
+  /**
+   * @param subFunction caller
+   * @param pageContext information shared by all pages
+   * @param renderers   one renderer per render worker. PDFBox is not thread-safe: each worker must use its own document
+   * @param queueSize   maximum number of pages waiting between two stages. This caps the number of rendered images in
+   *                    memory
+   */
+  PdfToImagePipeline(PdfSubFunction subFunction, PageContext pageContext, List<RenderWorker> renderers, int queueSize) {
+    this.subFunction = subFunction;
+    this.pageContext = pageContext;
+    this.renderers = renderers;
+    this.queueSize = Math.max(queueSize, 1);
+  }
+
+  /**
+   * Run the pipeline on the list of pages
+   *
+   * @param listPages pages to render, with the DPI for each page
+   * @return the reference of each image saved, in the order of listPages
+   * @throws Exception the first exception thrown by a stage
+   */
+  List<String> run(List<PageRequest> listPages) throws Exception {
+    int nbPages = listPages.size();
+    if (nbPages == 0)
+      return List.of();
+    long beginTime = System.currentTimeMillis();
+
+    String[] listReferences = new String[nbPages];
+    BlockingQueue<RenderedPage> renderedQueue = new ArrayBlockingQueue<>(queueSize);
+    BlockingQueue<EncodedPage> encodedQueue = new ArrayBlockingQueue<>(queueSize);
+    AtomicInteger nextPosition = new AtomicInteger(0);
+
+    ExecutorService executorService = Executors.newFixedThreadPool(renderers.size() + 1, r -> {
+      Thread thread = new Thread(r, "pdf-to-images-pipeline");
+      thread.setDaemon(true);
+      return thread;
+    });
+    List<Future<Void>> listStages = new ArrayList<>();
+    try {
+      // Render stage: each worker takes the next page to render
+      for (RenderWorker renderWorker : renderers) {
+        listStages.add(executorService.submit(() -> {
+          int position;
+          while ((position = nextPosition.getAndIncrement()) < nbPages) {
+            renderedQueue.put(renderPage(renderWorker, position, listPages.get(position)));
+          }
+          return null;
+        }));
+      }
+      // Encode stage
+      listStages.add(executorService.submit(() -> {
+        for (int i = 0; i < nbPages; i++) {
+          encodedQueue.put(encodePage(renderedQueue.take()));
+        }
+        return null;
+      }));
+
+      // Store stage, in this thread
+      int nbPagesStored = 0;
+      while (nbPagesStored < nbPages) {
+        EncodedPage encodedPage = encodedQueue.poll(STAGE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (encodedPage == null) {
+          // nothing to store: maybe a stage failed
+          checkStages(listStages);
+          continue;
+        }
+        listReferences[encodedPage.position()] = storePage(encodedPage);
+        nbPagesStored++;
+      }
+      PdfMetrics.countPages(subFunction, nbPages);
+      logger.info("{} Document[{}] {} pages in {} ms ({} render workers, queue size {})",
+          PdfToolbox.getLogSignature(subFunction), pageContext.docSource().getName(), nbPages,
+          System.currentTimeMillis() - beginTime, renderers.size(), queueSize);
+      logger.info("{} Document[{}] Encode {} {}: total {} ms {} Ko, average per page {} ms {} Ko",
+          PdfToolbox.getLogSignature(subFunction), pageContext.docSource().getName(), pageContext.imageFormat(),
+          pageContext.encodingSettings(), encodeTotalMs.get(), encodeTotalBytes.get() / 1024,
+          encodeTotalMs.get() / nbPages, encodeTotalBytes.get() / nbPages / 1024);
+      return Arrays.asList(listReferences);
+    } finally {
+      executorService.shutdownNow();
+      // a worker may still use a document: wait before the caller closes them
+      if (!executorService.awaitTermination(STAGE_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        logger.error("{} Pipeline stages are still running after {} s", PdfToolbox.getLogSignature(subFunction),
+            STAGE_TERMINATION_TIMEOUT_SECONDS);
+    }
+  }
+
+  /**
+   * If a stage failed, throw its exception
+   *
+   * @param listStages stages to check
+   * @throws Exception the exception thrown by the stage
+   */
+  private void checkStages(List<Future<Void>> listStages) throws Exception {
+    for (Future<Void> stage : listStages) {
+      if (!stage.isDone())
+        continue;
+      try {
+        stage.get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof Exception cause)
+          throw cause;
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Render stage
+   *
+   * @param renderWorker renderer to use
+   * @param position     position of the page in the list of pages to render
+   * @param pageRequest  page to render
+   * @return the page rendered
+   * @throws IOException in case of error
+   */
+  private RenderedPage renderPage(RenderWorker renderWorker, int position, PageRequest pageRequest)
+      throws IOException {
+    int pageIndex = pageRequest.pageIndex();
+    long timeStep0Begin = System.currentTimeMillis();
+
+    // Render PDF page to BufferedImage
+    logger.debug("{} Document[{}] Start render page [{}/{}] at [{}] dpi", PdfToolbox.getLogSignature(subFunction),
+        pageContext.docSource().getName(), pageIndex + 1, pageContext.numberOfPages(), pageRequest.dpi());
+
+    if (pageContext.stripHeight() > 0) {
+      byte[] imageData = renderPageTiled(renderWorker, pageRequest);
+      return new RenderedPage(position, pageRequest, null, imageData, System.currentTimeMillis() - timeStep0Begin);
+    }
+    BufferedImage image = renderWorker.pdfRenderer()
+        .renderImageWithDPI(pageIndex, pageRequest.dpi(), pageContext.imageType());
+    return new RenderedPage(position, pageRequest, image, null, System.currentTimeMillis() - timeStep0Begin);
+  }
+
+  /**
+   * Render the page in horizontal strips, each strip is written in the PNG before the next one renders. Only one strip
+   * is in memory, whatever the size of the page. The page content is interpreted one time per strip.
+   *
+   * @param renderWorker renderer to use
+   * @param pageRequest  page to render
+   * @return the PNG image
+   * @throws IOException in case of error
+   */
+  private byte[] renderPageTiled(RenderWorker renderWorker, PageRequest pageRequest) throws IOException {
+    PDPage page = renderWorker.document().getPage(pageRequest.pageIndex());
+    PDRectangle cropBox = page.getCropBox();
+    float scale = pageRequest.dpi() / 72f;
+    // same size as PDFRenderer.renderImage
+    boolean rotated = page.getRotation() == 90 || page.getRotation() == 270;
+    float widthPoints = rotated ? cropBox.getHeight() : cropBox.getWidth();
+    float heightPoints = rotated ? cropBox.getWidth() : cropBox.getHeight();
+    int width = (int) Math.max(Math.floor(widthPoints * scale), 1);
+    int height = (int) Math.max(Math.floor(heightPoints * scale), 1);
+    int stripHeight = Math.min(pageContext.stripHeight(), height);
+
+    // gray and black and white profiles produce an 8 bits gray PNG
+    boolean gray = pageContext.imageType() == ImageType.GRAY || pageContext.imageType() == ImageType.BINARY;
+    BufferedImage strip = new BufferedImage(width, stripHeight,
+        gray ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+    Integer compressionLevel = pageContext.encodingSettings().pngCompressionLevel();
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (StripPngWriter pngWriter = new StripPngWriter(baos, width, height, gray,
+        compressionLevel == null ? Deflater.DEFAULT_COMPRESSION : compressionLevel)) {
+      for (int top = 0; top < height; top += stripHeight) {
+        int rows = Math.min(stripHeight, height - top);
+        Graphics2D graphics = strip.createGraphics();
+        try {
+          graphics.setBackground(Color.WHITE);
+          graphics.clearRect(0, 0, width, stripHeight);
+          // move the page up: the strip shows the rows [top, top+rows[
+          graphics.translate(0, -top);
+          graphics.clipRect(0, top, width, rows);
+          renderWorker.pdfRenderer().renderPageToGraphics(pageRequest.pageIndex(), graphics, scale);
+        } finally {
+          graphics.dispose();
+        }
+        pngWriter.writeStrip(strip, rows);
+      }
+      pngWriter.finish();
+    }
+    logger.debug("{} Document[{}] Page [{}] rendered tiled hxw [{}x{}] strip height {}",
+        PdfToolbox.getLogSignature(subFunction), pageContext.docSource().getName(), pageRequest.pageIndex() + 1,
+        height, width, stripHeight);
+    return baos.toByteArray();
+  }
+
+  /**
+   * Encode stage: write the image in the image format
+   *
+   * @param renderedPage page rendered
+   * @return the page encoded
+   * @throws IOException in case of error
+   */
+  private EncodedPage encodePage(RenderedPage renderedPage) throws IOException {
+    if (renderedPage.imageData() != null) {
+      // tiled mode: the image is already encoded during the render
+      encodeTotalBytes.addAndGet(renderedPage.imageData().length);
+      return new EncodedPage(renderedPage.position(), renderedPage.pageRequest(), renderedPage.imageData(),
+          renderedPage.renderMs(), 0);
+    }
+    long timeStep0Begin = System.currentTimeMillis();
+    BufferedImage image = renderedPage.image();
+
+    // Convert BufferedImage to byte array
+    logger.debug("{} Document[{}] Start write image hxw [{}x{}]", PdfToolbox.getLogSignature(subFunction),
+        pageContext.docSource().getName(), image.getHeight(), image.getWidth());
+
+    byte[] imageData = pageContext.imageFormat().encode(image, pageContext.encodingSettings());
+    long writeImageMs = System.currentTimeMillis() - timeStep0Begin;
+    encodeTotalMs.addAndGet(writeImageMs);
+    encodeTotalBytes.addAndGet(imageData.length);
+    return new EncodedPage(renderedPage.position(), renderedPage.pageRequest(), imageData, renderedPage.renderMs(),
+        writeImageMs);
+  }
+
+  /**
+   * Store stage: save the image in the storage
+   *
+   * @param encodedPage page to save
+   * @return the reference of the file saved
+   */
+  private String storePage(EncodedPage encodedPage) {
+    long timeStep0Begin = System.currentTimeMillis();
+
+    FileVariable fileVariableOut = new FileVariable();
+
+    fileVariableOut.setValue(encodedPage.imageData());
+    fileVariableOut.setName(
+        PdfToolbox.getDocumentName(pageContext.docSource(), true) + "_" + (encodedPage.pageRequest().pageIndex() + 1)
+            + "." + pageContext.imageFormat().getExtension());
+    fileVariableOut.setStorageDefinition(pageContext.destinationStorageDefinition());
+    logger.debug("{} Document[{}] Start save file to storage[{}]", PdfToolbox.getLogSignature(subFunction),
+        pageContext.docSource().getName(), pageContext.destinationStorageDefinition().getInformation());
+
+    String reference = SavePdfDocument.saveFileVariable(fileVariableOut, pageContext.fileRepoFactory(), subFunction,
+        pageContext.outboundConnectorContext());
+    // the store stage is recorded by saveFileVariable; in tiled mode the encoding is part of the render
+    PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.PROCESS, encodedPage.renderMs());
+    PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.SERIALIZE, encodedPage.writeImageMs());
+
+    logger.info(
+        "{} Document[{}] Page [{}/{}] Render {} ms at {} dpi, WriteImage {} {} ms, WriteFile {} ms imageSize {} Ko",
+        PdfToolbox.getLogSignature(subFunction), pageContext.docSource().getName(),
+        (encodedPage.pageRequest().pageIndex() + 1), pageContext.numberOfPages(), encodedPage.renderMs(), // Rendering
+        encodedPage.pageRequest().dpi(),
+        pageContext.imageFormat(),
+        encodedPage.writeImageMs(), // Write Image
+        System.currentTimeMillis() - timeStep0Begin, encodedPage.imageData().length / 1024); // Save Image
+    return reference;
+  }
+
+  /**
+   * Information shared by all pages of the operation.
+   * stripHeight: if greater than 0, pages are rendered in strips of this height (tiled mode, PNG only)
+   */
+  record PageContext(FileVariable docSource,
+                     int numberOfPages,
+                     ImageType imageType,
+                     ImageFormat imageFormat,
+                     ImageFormat.EncodingSettings encodingSettings,
+                     int stripHeight,
+                     StorageDefinition destinationStorageDefinition,
+                     FileRepoFactory fileRepoFactory,
+                     OutboundConnectorContext outboundConnectorContext) {
+  }
+
+  /**
+   * One page to render
+   *
+   * @param pageIndex page index, start at 0
+   * @param dpi       DPI used to render this page. It may be lower than the requested DPI for a large page
+   */
+  record PageRequest(int pageIndex, float dpi) {
+  }
+
+  /**
+   * One render worker: a renderer and the document it renders
+   */
+  record RenderWorker(PDDocument document, PDFRenderer pdfRenderer) {
+  }
+
+  /**
+   * One page rendered, waiting to be encoded. In tiled mode, the image is null and imageData is already encoded.
+   */
+  private record RenderedPage(int position,
+                              PageRequest pageRequest,
+                              BufferedImage image,
+                              byte[] imageData,
+                              long renderMs) {
+  }
+
+  /**
+   * One page encoded, waiting to be stored
+   */
+  private record EncodedPage(int position,
+                             PageRequest pageRequest,
+                             byte[] imageData,
+                             long renderMs,
+                             long writeImageMs) {
+  }
+}
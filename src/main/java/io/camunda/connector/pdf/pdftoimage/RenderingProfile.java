@@ -0,0 +1,75 @@
+package io.camunda.connector.pdf.pdftoimage;
+
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.pdf.toolbox.PdfError;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * How a page is rendered. A draft profile renders faster and produces smaller images, for OCR or thumbnails.
+ * STANDARD: full color, default quality (the historical rendering)
+ * GRAY_DRAFT: gray levels, subsampling of images, fast rendering hints
+ * BINARY_DRAFT: black and white, subsampling of images, fast rendering hints
+ * THUMBNAIL: full color, subsampling of images, fast rendering hints
+ */
+public enum RenderingProfile {
+  STANDARD(ImageType.RGB, false, false),
+  GRAY_DRAFT(ImageType.GRAY, true, true),
+  BINARY_DRAFT(ImageType.BINARY, true, true),
+  THUMBNAIL(ImageType.RGB, true, true);
+
+  private final ImageType imageType;
+  private final boolean subsamplingAllowed;
+  private final boolean fastRenderingHints;
+
+  RenderingProfile(ImageType imageType, boolean subsamplingAllowed, boolean fastRenderingHints) {
+    this.imageType = imageType;
+    this.subsamplingAllowed = subsamplingAllowed;
+    this.fastRenderingHints = fastRenderingHints;
+  }
+
+  /**
+   * Decode the profile given as a parameter
+   *
+   * @param profileSt profile. Null or empty means STANDARD
+   * @return the profile
+   * @throws ConnectorException if the value is unknown
+   */
+  public static RenderingProfile getRenderingProfile(String profileSt) throws ConnectorException {
+    if (profileSt == null || profileSt.trim().isEmpty())
+      return STANDARD;
+    try {
+      return RenderingProfile.valueOf(profileSt.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Rendering profile [" + profileSt + "] is unknown, expected " + Arrays.toString(RenderingProfile.values()));
+    }
+  }
+
+  public ImageType getImageType() {
+    return imageType;
+  }
+
+  /**
+   * Configure a renderer according to the profile
+   *
+   * @param pdfRenderer     renderer to configure
+   * @param skipAnnotations if true, annotations (comments, stamps, form fields appearance) are not rendered
+   */
+  public void configure(PDFRenderer pdfRenderer, boolean skipAnnotations) {
+    pdfRenderer.setSubsamplingAllowed(subsamplingAllowed);
+    if (fastRenderingHints) {
+      RenderingHints renderingHints = new RenderingHints(RenderingHints.KEY_RENDERING,
+          RenderingHints.VALUE_RENDER_SPEED);
+      renderingHints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+      renderingHints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+      renderingHints.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
+      pdfRenderer.setRenderingHints(renderingHints);
+    }
+    if (skipAnnotations)
+      pdfRenderer.setAnnotationsFilter(annotation -> false);
+  }
+}
@@ -0,0 +1,178 @@
+package io.camunda.connector.pdf.pdftoimage;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  StripPngWriter                                                      */
+/*                                                                      */
+/*  Write a PNG strip by strip: the image is never complete in memory.  */
+/*  Each row is filtered (Sub filter) and deflated in IDAT chunks.      */
+/*  Supports 8 bits gray and 8 bits RGB images.                         */
+/* ******************************************************************** */
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+class StripPngWriter implements Closeable {
+  private static final byte[] PNG_SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+  private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+  private static final byte COLOR_TYPE_GRAY = 0;
+  private static final byte COLOR_TYPE_RGB = 2;
+  private static final byte FILTER_SUB = 1;
+
+  private final DataOutputStream out;
+  private final int width;
+  private final int height;
+  private final boolean gray;
+  private final int bytesPerPixel;
+  private final Deflater deflater;
+  private final DeflaterOutputStream idatStream;
+  private final IdatOutputStream idatChunks;
+  private final byte[] rawRow;
+  private final byte[] filteredRow;
+  private int rowsWritten = 0;
+
+  /**
+   * Write the PNG header
+   *
+   * @param outputStream     destination
+   * @param width            width of the image
+   * @param height           height of the image
+   * @param gray             true for an 8 bits gray image, false for 8 bits RGB
+   * @param compressionLevel deflate level, 0 to 9, or Deflater.DEFAULT_COMPRESSION
+   * @throws IOException in case of error
+   */
+  StripPngWriter(OutputStream outputStream, int width, int height, boolean gray, int compressionLevel)
+      throws IOException {
+    this.out = new DataOutputStream(outputStream);
+    this.width = width;
+    this.height = height;
+    this.gray = gray;
+    this.bytesPerPixel = gray ? 1 : 3;
+    this.rawRow = new byte[width * bytesPerPixel];
+    this.filteredRow = new byte[width * bytesPerPixel + 1];
+
+    out.write(PNG_SIGNATURE);
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    DataOutputStream headerData = new DataOutputStream(header);
+    headerData.writeInt(width);
+    headerData.writeInt(height);
+    headerData.writeByte(8); // bit depth
+    headerData.writeByte(gray ? COLOR_TYPE_GRAY : COLOR_TYPE_RGB);
+    headerData.writeByte(0); // compression: deflate
+    headerData.writeByte(0); // filter method: adaptive
+    headerData.writeByte(0); // no interlace
+    writeChunk("IHDR", header.toByteArray(), header.size());
+
+    this.deflater = new Deflater(compressionLevel);
+    this.idatChunks = new IdatOutputStream();
+    this.idatStream = new DeflaterOutputStream(idatChunks, deflater, IDAT_CHUNK_SIZE);
+  }
+
+  /**
+   * Write the first rows of a strip
+   *
+   * @param strip image created with the width of the PNG, TYPE_BYTE_GRAY for a gray PNG, else TYPE_INT_RGB
+   * @param rows  number of rows to write, from the top of the strip
+   * @throws IOException in case of error
+   */
+  void writeStrip(BufferedImage strip, int rows) throws IOException {
+    if (rowsWritten + rows > height)
+      throw new IOException("Too many rows: " + (rowsWritten + rows) + " for an image height " + height);
+    for (int y = 0; y < rows; y++) {
+      if (gray) {
+        byte[] data = ((DataBufferByte) strip.getRaster().getDataBuffer()).getData();
+        System.arraycopy(data, y * width, rawRow, 0, width);
+      } else {
+        int[] data = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        for (int x = 0; x < width; x++) {
+          int pixel = data[y * width + x];
+          rawRow[3 * x] = (byte) (pixel >> 16);
+          rawRow[3 * x + 1] = (byte) (pixel >> 8);
+          rawRow[3 * x + 2] = (byte) pixel;
+        }
+      }
+      // Sub filter: each byte is the difference with the same byte of the previous pixel
+      filteredRow[0] = FILTER_SUB;
+      for (int i = 0; i < rawRow.length; i++) {
+        filteredRow[i + 1] = (byte) (rawRow[i] - (i >= bytesPerPixel ? rawRow[i - bytesPerPixel] : 0));
+      }
+      idatStream.write(filteredRow);
+    }
+    rowsWritten += rows;
+  }
+
+  /**
+   * Write the end of the image. All rows must be written.
+   *
+   * @throws IOException in case of error
+   */
+  void finish() throws IOException {
+    if (rowsWritten != height)
+      throw new IOException("Image incomplete: " + rowsWritten + " rows written on " + height);
+    idatStream.finish();
+    idatChunks.flushChunk();
+    writeChunk("IEND", new byte[0], 0);
+    out.flush();
+  }
+
+  @Override
+  public void close() {
+    deflater.end();
+  }
+
+  private void writeChunk(String type, byte[] data, int length) throws IOException {
+    byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+    CRC32 crc = new CRC32();
+    crc.update(typeBytes);
+    crc.update(data, 0, length);
+    out.writeInt(length);
+    out.write(typeBytes);
+    out.write(data, 0, length);
+    out.writeInt((int) crc.getValue());
+  }
+
+  /**
+   * Collect the deflated data, and write it as IDAT chunks
+   */
+  private class IdatOutputStream extends OutputStream {
+    private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+    private int size = 0;
+
+    @Override
+    public void write(int b) throws IOException {
+      buffer[size++] = (byte) b;
+      if (size == buffer.length)
+        flushChunk();
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+      while (length > 0) {
+        int copy = Math.min(length, buffer.length - size);
+        System.arraycopy(data, offset, buffer, size, copy);
+        size += copy;
+        offset += copy;
+        length -= copy;
+        if (size == buffer.length)
+          flushChunk();
+      }
+    }
+
+    void flushChunk() throws IOException {
+      if (size == 0)
+        return;
+      writeChunk("IDAT", buffer, size);
+      size = 0;
+    }
+  }
+}
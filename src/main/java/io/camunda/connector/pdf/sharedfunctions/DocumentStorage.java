@@ -0,0 +1,85 @@
+package io.camunda.connector.pdf.sharedfunctions;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  DocumentStorage                                                     */
+/*                                                                      */
+/*  Read and save the files of the functions. By default, the files go  */
+/*  to the FileStorage library (FileRepoFactory). A benchmark or a load */
+/*  test sets a local backend, to measure the connector without the     */
+/*  remote storage.                                                     */
+/* ******************************************************************** */
+
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.filestorage.FileRepoFactory;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.FileVariableReference;
+
+public class DocumentStorage {
+
+  // null: the FileRepoFactory is used
+  private static volatile Backend backend = null;
+
+  /**
+   * Toolbox, only static method
+   */
+  private DocumentStorage() {
+  }
+
+  /**
+   * Replace the FileStorage library by another storage, for all jobs of the JVM
+   *
+   * @param newBackend the storage to use. Null to go back to the FileStorage library
+   */
+  public static void setBackend(Backend newBackend) {
+    backend = newBackend;
+  }
+
+  /**
+   * Load a file
+   *
+   * @param reference                reference of the file
+   * @param fileRepoFactory          FileStorage library, used if no backend is set
+   * @param outboundConnectorContext context of the task
+   * @return the file
+   * @throws Exception if the file can't be read
+   */
+  public static FileVariable loadFileVariable(FileVariableReference reference,
+                                              FileRepoFactory fileRepoFactory,
+                                              OutboundConnectorContext outboundConnectorContext) throws Exception {
+    Backend currentBackend = backend;
+    return currentBackend == null ?
+        fileRepoFactory.loadFileVariable(reference, outboundConnectorContext) :
+        currentBackend.loadFileVariable(reference, outboundConnectorContext);
+  }
+
+  /**
+   * Save a file
+   *
+   * @param fileVariable             file to save
+   * @param fileRepoFactory          FileStorage library, used if no backend is set
+   * @param outboundConnectorContext context of the task
+   * @return the reference of the file saved
+   * @throws Exception if the file can't be saved
+   */
+  public static FileVariableReference saveFileVariable(FileVariable fileVariable,
+                                                       FileRepoFactory fileRepoFactory,
+                                                       OutboundConnectorContext outboundConnectorContext)
+      throws Exception {
+    Backend currentBackend = backend;
+    return currentBackend == null ?
+        fileRepoFactory.saveFileVariable(fileVariable, outboundConnectorContext) :
+        currentBackend.saveFileVariable(fileVariable, outboundConnectorContext);
+  }
+
+  /**
+   * A storage replacing the FileStorage library. It is called by several jobs in parallel
+   */
+  public interface Backend {
+    FileVariable loadFileVariable(FileVariableReference reference, OutboundConnectorContext outboundConnectorContext)
+        throws Exception;
+
+    FileVariableReference saveFileVariable(FileVariable fileVariable,
+                                           OutboundConnectorContext outboundConnectorContext) throws Exception;
+  }
+}
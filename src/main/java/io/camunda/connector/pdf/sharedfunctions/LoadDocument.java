@@ -2,6 +2,7 @@ package io.camunda.connector.pdf.sharedfunctions;
 
 import io.camunda.connector.api.error.ConnectorException;
 import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileRepoFactory;
@@ -56,13 +57,44 @@ public class LoadDocument {
                                                         PdfSubFunction subFunction,
                                                         OutboundConnectorContext outboundConnectorContext) {
     try {
-      FileVariable docSource = fileRepoFactory.loadFileVariable(docReference,outboundConnectorContext);
+      // the source may be already loaded by this execution (key of the ResultCache): see LoadedSources
+      LoadedSources loadedSources = LoadedSources.get(outboundConnectorContext);
+      String referenceKey = loadedSources != null ? docReference.toJson() : null;
+      if (referenceKey != null) {
+        FileVariable loadedDocSource = loadedSources.getFileVariable(referenceKey);
+        if (loadedDocSource != null)
+          return loadedDocSource;
+      }
+
+      // the same source is often used by several tasks in a row: see SourceDocumentCache
+      SourceDocumentCache sourceDocumentCache = SourceDocumentCache.getInstance();
+      String cacheKey = sourceDocumentCache.isEnabled() ? docReference.toJson() : null;
+      if (cacheKey != null) {
+        FileVariable cachedDocSource = sourceDocumentCache.get(cacheKey);
+        logger.debug("{} SourceDocumentCache {} [{}] {}", PdfToolbox.getLogSignature(subFunction),
+            cachedDocSource == null ? "miss" : "hit", cacheKey, sourceDocumentCache.getSynthesis());
+        if (cachedDocSource != null) {
+          if (referenceKey != null)
+            loadedSources.put(referenceKey, cachedDocSource);
+          return cachedDocSource;
+        }
+      }
+
+      long beginLoad = System.currentTimeMillis();
+      FileVariable docSource = DocumentStorage.loadFileVariable(docReference, fileRepoFactory, outboundConnectorContext);
+      PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.LOAD, System.currentTimeMillis() - beginLoad);
 
       // get the file - don't get any value here, because in a Stream approach, we don't ant to consu;eteh stream
       if (docSource == null || (docSource.isValueBytes() && docSource.getValue()==null)) {
         throw new ConnectorException(ERROR_LOAD_ERROR,
             PdfToolbox.getLogSignature(subFunction) + "Can't read file [" + docReference.toJson() + "]");
       }
+      if (docSource.isValueBytes())
+        PdfMetrics.recordBytesIn(subFunction, docSource.getValue().length);
+      if (cacheKey != null)
+        sourceDocumentCache.put(cacheKey, docSource);
+      if (referenceKey != null)
+        loadedSources.put(referenceKey, docSource);
       return docSource;
     } catch (Exception e) {
       logger.error("{} Exception load [{}] : {} ", PdfToolbox.getLogSignature(subFunction), docReference, e);
@@ -1,13 +1,17 @@
 package io.camunda.connector.pdf.sharedfunctions;
 
 import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.pdf.toolbox.PdfError;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileVariable;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.Map;
 
 public class LoadPdfDocument {
@@ -19,6 +23,16 @@ public class LoadPdfDocument {
 
   private static final Logger logger = LoggerFactory.getLogger(LoadPdfDocument.class.getName());
 
+  /**
+   * PDFBox needs roughly this factor times the file size to keep the parsed document in memory
+   */
+  private static final long PARSED_DOCUMENT_FACTOR = 3;
+  /**
+   * In AUTO mode, a document is parsed in the main memory only if it uses less than 1/HEAP_HEADROOM_RATIO of the
+   * available heap. In MIXED mode, it's the maximum of main memory used by the document
+   */
+  private static final long HEAP_HEADROOM_RATIO = 4;
+
   /**
    * Toolbox, only static method
    */
@@ -26,16 +40,36 @@ public class LoadPdfDocument {
   }
 
   /**
-   * Load a PDDocument from a file variable
+   * Load a PDDocument from a file variable. The memory mode is calculated from the size of the document
    *
    * @param sourceFileVariable the source document to load
    * @return a PDocument
    */
   public static PDDocument loadPdfDocument(FileVariable sourceFileVariable, PdfSubFunction subFunction)
       throws ConnectorException {
+    return loadPdfDocument(sourceFileVariable, MemoryMode.AUTO, subFunction);
+  }
+
+  /**
+   * Load a PDDocument from a file variable
+   *
+   * @param sourceFileVariable the source document to load
+   * @param memoryMode         where PDFBox keeps the parsed document. AUTO calculates it from the document size and the
+   *                           heap available
+   * @param subFunction        caller
+   * @return a PDocument
+   */
+  public static PDDocument loadPdfDocument(FileVariable sourceFileVariable,
+                                           MemoryMode memoryMode,
+                                           PdfSubFunction subFunction) throws ConnectorException {
     PDDocument sourceDocument;
     try {
-      sourceDocument = PDDocument.load(sourceFileVariable.getValue());
+      byte[] documentContent = sourceFileVariable.getValue();
+      MemoryUsageSetting memoryUsageSetting = getMemoryUsageSetting(sourceFileVariable.getName(),
+          documentContent.length, memoryMode, subFunction);
+      long beginParse = System.currentTimeMillis();
+      sourceDocument = PDDocument.load(documentContent, "", null, null, memoryUsageSetting);
+      PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.PARSE, System.currentTimeMillis() - beginParse);
 
     } catch (Exception e) {
       logger.error("{} Load PDF document : {} ", PdfToolbox.getLogSignature(subFunction), e);
@@ -47,12 +81,78 @@ public class LoadPdfDocument {
     if (sourceDocument.isEncrypted()) {
       logger.error("{} PDF document is encrypted, this is not supported : {} ", PdfToolbox.getLogSignature(subFunction),
           sourceFileVariable.getName());
+      closeQuietly(sourceDocument);
       throw new ConnectorException(ERROR_ENCRYPTED_PDF_NOT_SUPPORTED,
           "Connector[" + subFunction.getSubFunctionName() + "] Document is encrypted");
     }
     return sourceDocument;
   }
 
+  /**
+   * Decode the memory mode given as a parameter
+   *
+   * @param memoryModeSt memory mode (MemoryMode value). Null or empty means AUTO
+   * @return the memory mode
+   * @throws ConnectorException if the value is unknown
+   */
+  public static MemoryMode getMemoryMode(String memoryModeSt) throws ConnectorException {
+    if (memoryModeSt == null || memoryModeSt.trim().isEmpty())
+      return MemoryMode.AUTO;
+    try {
+      return MemoryMode.valueOf(memoryModeSt.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Memory mode [" + memoryModeSt + "] is unknown, expected " + Arrays.toString(MemoryMode.values()));
+    }
+  }
+
+  /**
+   * Return the MemoryUsageSetting to give to PDFBox. In AUTO mode, the mode is calculated from the document size and the
+   * heap available now.
+   *
+   * @param documentName name of the document, to log
+   * @param documentSize size of the document in bytes
+   * @param memoryMode   mode requested
+   * @param subFunction  caller
+   * @return the setting
+   */
+  public static MemoryUsageSetting getMemoryUsageSetting(String documentName,
+                                                         long documentSize,
+                                                         MemoryMode memoryMode,
+                                                         PdfSubFunction subFunction) {
+    Runtime runtime = Runtime.getRuntime();
+    long heapHeadroom = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    long maxMainMemory = Math.max(heapHeadroom / HEAP_HEADROOM_RATIO, 0);
+
+    MemoryMode modeUsed = memoryMode;
+    if (modeUsed == MemoryMode.AUTO) {
+      long estimatedParsedSize = documentSize * PARSED_DOCUMENT_FACTOR;
+      if (estimatedParsedSize < maxMainMemory)
+        modeUsed = MemoryMode.MAIN_MEMORY;
+      else if (estimatedParsedSize < heapHeadroom)
+        modeUsed = MemoryMode.MIXED;
+      else
+        modeUsed = MemoryMode.TEMP_FILE;
+    }
+    logger.info("{} Document[{}] size {} Ko loaded with memory mode {} (requested {}, heap headroom {} Mo)",
+        PdfToolbox.getLogSignature(subFunction), documentName, documentSize / 1024, modeUsed, memoryMode,
+        heapHeadroom / (1024 * 1024));
+
+    return switch (modeUsed) {
+      case MIXED -> MemoryUsageSetting.setupMixed(maxMainMemory);
+      case TEMP_FILE -> MemoryUsageSetting.setupTempFileOnly();
+      default -> MemoryUsageSetting.setupMainMemoryOnly();
+    };
+  }
+
+  private static void closeQuietly(PDDocument document) {
+    try {
+      document.close();
+    } catch (Exception e) {
+      // don't care
+    }
+  }
+
   /**
    * Return the list of BPMN Errors the loadPdfDocument can return
    *
@@ -62,4 +162,12 @@ public class LoadPdfDocument {
     return Map.of(ERROR_LOAD_PDF_ERROR, ERROR_LOAD_PDF_ERROR_LABEL, ERROR_ENCRYPTED_PDF_NOT_SUPPORTED,
         ERROR_ENCRYPTED_PDF_NOT_SUPPORTED_LABEL);
   }
+
+  /**
+   * MAIN_MEMORY: the parsed document stays in the heap
+   * MIXED: the heap is used up to a limit, then a scratch file
+   * TEMP_FILE: the parsed document is kept in a scratch file
+   * AUTO: calculated from the document size and the heap available
+   */
+  public enum MemoryMode {AUTO, MAIN_MEMORY, MIXED, TEMP_FILE}
 }
@@ -0,0 +1,121 @@
+package io.camunda.connector.pdf.sharedfunctions;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  LoadedSources                                                       */
+/*                                                                      */
+/*  Sources loaded during one execution of the connector. The           */
+/*  ResultCache loads the sources to calculate its key: the             */
+/*  sub-function then gets them from here, not from the storage.        */
+/*  The digest of a source is calculated once, when it is loaded.       */
+/*  The execution is identified by its OutboundConnectorContext.        */
+/* ******************************************************************** */
+
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.storage.StorageDefinition;
+
+import java.security.MessageDigest;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LoadedSources implements AutoCloseable {
+
+  private static final Map<OutboundConnectorContext, LoadedSources> executions = new IdentityHashMap<>();
+
+  private final OutboundConnectorContext outboundConnectorContext;
+  // key is the JSON of the reference. Sub-functions may load their sources in parallel
+  private final Map<String, LoadedSource> sources = new ConcurrentHashMap<>();
+  // a context may be shared by executions running in parallel: the last one removes the sources
+  private int nbExecutions = 0;
+
+  private LoadedSources(OutboundConnectorContext outboundConnectorContext) {
+    this.outboundConnectorContext = outboundConnectorContext;
+  }
+
+  /**
+   * Start to keep the sources loaded for this execution. Close the result at the end of the execution.
+   *
+   * @param outboundConnectorContext context of the execution
+   * @return the sources of the execution
+   */
+  public static LoadedSources open(OutboundConnectorContext outboundConnectorContext) {
+    synchronized (executions) {
+      LoadedSources loadedSources = executions.computeIfAbsent(outboundConnectorContext, LoadedSources::new);
+      loadedSources.nbExecutions++;
+      return loadedSources;
+    }
+  }
+
+  /**
+   * Return the sources of the execution
+   *
+   * @param outboundConnectorContext context of the execution
+   * @return the sources, or null if the execution does not keep them
+   */
+  public static LoadedSources get(OutboundConnectorContext outboundConnectorContext) {
+    if (outboundConnectorContext == null)
+      return null;
+    synchronized (executions) {
+      return executions.get(outboundConnectorContext);
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (executions) {
+      nbExecutions--;
+      if (nbExecutions <= 0)
+        executions.remove(outboundConnectorContext, this);
+    }
+  }
+
+  /**
+   * Return a source already loaded
+   *
+   * @param key JSON of the reference
+   * @return a new FileVariable sharing the content loaded (the content must not be modified), or null
+   */
+  public FileVariable getFileVariable(String key) {
+    LoadedSource loadedSource = sources.get(key);
+    return loadedSource == null ? null : loadedSource.toFileVariable();
+  }
+
+  /**
+   * Keep a source loaded, and calculate its digest. A source not loaded in memory is not kept.
+   *
+   * @param key          JSON of the reference
+   * @param fileVariable source loaded
+   * @throws Exception if the digest can't be calculated
+   */
+  public void put(String key, FileVariable fileVariable) throws Exception {
+    if (!fileVariable.isValueBytes() || fileVariable.getValue() == null)
+      return;
+    MessageDigest contentDigest = MessageDigest.getInstance("SHA-256");
+    byte[] digest = contentDigest.digest(fileVariable.getValue());
+    sources.put(key,
+        new LoadedSource(fileVariable.getValue(), fileVariable.getName(), fileVariable.getStorageDefinition(), digest));
+  }
+
+  /**
+   * Return the SHA-256 of the content of a source
+   *
+   * @param key JSON of the reference
+   * @return the digest, or null if the source was not loaded in memory
+   */
+  public byte[] getDigest(String key) {
+    LoadedSource loadedSource = sources.get(key);
+    return loadedSource == null ? null : loadedSource.digest();
+  }
+
+  private record LoadedSource(byte[] content, String name, StorageDefinition storageDefinition, byte[] digest) {
+    FileVariable toFileVariable() {
+      FileVariable fileVariable = new FileVariable();
+      fileVariable.setValue(content);
+      fileVariable.setName(name);
+      fileVariable.setStorageDefinition(storageDefinition);
+      return fileVariable;
+    }
+  }
+}
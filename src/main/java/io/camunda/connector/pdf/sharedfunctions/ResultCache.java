@@ -0,0 +1,192 @@
+package io.camunda.connector.pdf.sharedfunctions;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  ResultCache                                                         */
+/*                                                                      */
+/*  Cache of the results, to not compute again a job retried by Zeebe   */
+/*  (timeout) or an identical request. The key is a SHA-256 of the      */
+/*  normalized input parameters and of the content of each source; the  */
+/*  value is the output, i.e. the reference of the files already saved. */
+/*  The cache is disabled by default (pdf.result-cache.max-entries=0)   */
+/* ******************************************************************** */
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.PdfInput;
+import io.camunda.connector.pdf.PdfOutput;
+import io.camunda.connector.pdf.toolbox.PdfConfiguration;
+import io.camunda.connector.pdf.toolbox.PdfSubFunction;
+import io.camunda.connector.pdf.toolbox.PdfToolbox;
+import io.camunda.filestorage.FileRepoFactory;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.FileVariableReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResultCache {
+  /**
+   * Maximum number of results kept. 0 disables the cache
+   */
+  public static final String CACHE_MAX_ENTRIES = "pdf.result-cache.max-entries";
+  /**
+   * Time to live of a result, in seconds. The files referenced must still exist in the storage
+   */
+  public static final String CACHE_TTL_SECONDS = "pdf.result-cache.ttl-seconds";
+
+  private static final Logger logger = LoggerFactory.getLogger(ResultCache.class.getName());
+
+  // properties and map entries are sorted: the same input always gives the same JSON
+  private static final ObjectMapper normalizedMapper = JsonMapper.builder()
+      .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+      .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+      .build();
+
+  private final long maxEntries;
+  private final long ttlMs;
+  private final LinkedHashMap<String, CachedResult> results;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private ResultCache() {
+    maxEntries = PdfConfiguration.getLong(CACHE_MAX_ENTRIES, 0);
+    ttlMs = PdfConfiguration.getLong(CACHE_TTL_SECONDS, 3600) * 1000;
+    // access order, the least recently used is removed first
+    results = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+        return size() > maxEntries;
+      }
+    };
+    if (isEnabled())
+      logger.info("ResultCache: {} entries, ttl {} s", maxEntries, ttlMs / 1000);
+  }
+
+  /**
+   * Return the cache. It is built at the first call.
+   *
+   * @return the cache
+   */
+  public static ResultCache getInstance() {
+    return CacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  /**
+   * Calculate the key of a request. The sources are loaded once, via LoadDocument: they are kept in the LoadedSources
+   * of the execution, which gives them to the sub-function and calculates the digest of each content.
+   *
+   * @param pdfInput                 input of the request
+   * @param subFunction              sub-function executed
+   * @param loadedSources            sources of the execution, opened by the caller
+   * @param outboundConnectorContext context of the task
+   * @return the key, or null if a source is not loaded in memory: the result can't be cached
+   * @throws ConnectorException if a source can't be loaded
+   */
+  public String getKey(PdfInput pdfInput,
+                       PdfSubFunction subFunction,
+                       LoadedSources loadedSources,
+                       OutboundConnectorContext outboundConnectorContext) throws ConnectorException {
+    FileRepoFactory fileRepoFactory = FileRepoFactory.getInstance();
+    try {
+      MessageDigest keyDigest = MessageDigest.getInstance("SHA-256");
+      keyDigest.update(normalizedMapper.writeValueAsBytes(pdfInput));
+
+      List<Object> listReferences = new ArrayList<>();
+      if (pdfInput.getSourceFile() != null)
+        listReferences.add(pdfInput.getSourceFile());
+      if (pdfInput.getListSourceFile() != null)
+        listReferences.addAll(pdfInput.getListSourceFile());
+      for (Object reference : listReferences) {
+        FileVariableReference fileVariableReference = FileVariableReference.fromObject(reference);
+        FileVariable fileVariable = LoadDocument.loadDocSourceFromReference(fileVariableReference, fileRepoFactory,
+            subFunction, outboundConnectorContext);
+        // one digest per source, so the frontier between two sources is part of the key
+        byte[] contentDigest = loadedSources.getDigest(fileVariableReference.toJson());
+        if (contentDigest == null) {
+          logger.debug("{} ResultCache: source [{}] not loaded in memory, no key",
+              PdfToolbox.getLogSignature(subFunction), fileVariable.getName());
+          return null;
+        }
+        keyDigest.update(contentDigest);
+        keyDigest.update(String.valueOf(fileVariable.getName()).getBytes(StandardCharsets.UTF_8));
+      }
+      return HexFormat.of().formatHex(keyDigest.digest());
+    } catch (ConnectorException ce) {
+      throw ce;
+    } catch (Exception e) {
+      logger.error("{} ResultCache: can't calculate the key : {}", PdfToolbox.getLogSignature(subFunction),
+          e.getMessage());
+      throw new ConnectorException(PdfToolbox.ERROR_DURING_OPERATION, "Can't calculate the result key " + e);
+    }
+  }
+
+  /**
+   * Return the result of an identical request, if it exists and is not expired
+   *
+   * @param key key of the request
+   * @return a copy of the output, or null
+   */
+  public synchronized PdfOutput get(String key) {
+    CachedResult cachedResult = results.get(key);
+    if (cachedResult != null && System.currentTimeMillis() - cachedResult.createdTime() > ttlMs) {
+      results.remove(key);
+      cachedResult = null;
+    }
+    if (cachedResult == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return copy(cachedResult.pdfOutput());
+  }
+
+  /**
+   * Keep the result of a request
+   *
+   * @param key       key of the request
+   * @param pdfOutput output produced
+   */
+  public synchronized void put(String key, PdfOutput pdfOutput) {
+    results.put(key, new CachedResult(copy(pdfOutput), System.currentTimeMillis()));
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  private static PdfOutput copy(PdfOutput pdfOutput) {
+    PdfOutput copy = new PdfOutput();
+    copy.destinationFile = pdfOutput.destinationFile;
+    copy.listDestinationsFile = new ArrayList<>(pdfOutput.listDestinationsFile);
+    return copy;
+  }
+
+  private record CachedResult(PdfOutput pdfOutput, long createdTime) {
+  }
+
+  private static class CacheHolder {
+    private static final ResultCache INSTANCE = new ResultCache();
+  }
+}
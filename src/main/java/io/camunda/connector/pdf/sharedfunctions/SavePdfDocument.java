@@ -3,6 +3,7 @@ package io.camunda.connector.pdf.sharedfunctions;
 import io.camunda.connector.api.error.ConnectorException;
 import io.camunda.connector.api.outbound.OutboundConnectorContext;
 import io.camunda.connector.pdf.PdfOutput;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
 import io.camunda.filestorage.FileRepoFactory;
@@ -13,8 +14,9 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 public class SavePdfDocument {
@@ -51,45 +53,44 @@ public class SavePdfDocument {
                                       FileRepoFactory fileRepoFactory,
                                       PdfSubFunction subFunction,
                                       OutboundConnectorContext outboundConnectorContext) throws ConnectorException {
-    FileVariable fileVariableOut = new FileVariable();
-    try {
+    return savePdfFile(pdfOutput, destinationDocument, fileName, storageDefinition, fileRepoFactory, subFunction,
+        outboundConnectorContext, false);
+  }
 
-      // First, save the document to a FileVariable
-      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-      try {
-        destinationDocument.save(byteArrayOutputStream);
-
-        fileVariableOut.setValue(byteArrayOutputStream.toByteArray());
-        fileVariableOut.setName(fileName);
-        fileVariableOut.setStorageDefinition(storageDefinition);
-      } catch (Exception e) {
-        logger.error("{} Error during save to name[{}] StorageDefinition[{}] : {}",
-            PdfToolbox.getLogSignature(subFunction), fileName, storageDefinition, e.getMessage());
-
-        throw new ConnectorException(ERROR_CREATE_FILEVARIABLE,
-            "Name [" + fileName + "] StorageDefinition [" + storageDefinition + "] Error " + e);
-      }
-
-      // Second, write it to the fileRepo
-      FileVariableReference outputFileReference = fileRepoFactory.saveFileVariable(fileVariableOut, outboundConnectorContext);
-
-      // je triche : on renome le fichier
-
-      String fileNameToRename= outputFileReference.content.toString();
-      File oldFile = new File("c:/temp/unzip/result/" + fileNameToRename);
-      int index = fileNameToRename.indexOf(" - [");
-      String newFileName = fileNameToRename;
-      if (index != -1) {
-        newFileName = fileNameToRename.substring(0, index)+".pdf";
-      } else {
-        index = fileNameToRename.indexOf(".pdf");
-        newFileName = fileNameToRename.substring(0, index)+".pdf";
-      }
-      // New file name in the same directory
-      File newFile = new File("c:/temp/unzip/result/" +newFileName);
-      // Rename the file
-      boolean success = oldFile.renameTo(newFile);
+  /**
+   * Save the pdf produce in a FileRepoFactory using the storageDefinition
+   *
+   * @param pdfOutput                pdfOutput, will be returned by the function
+   * @param destinationDocument      psf document
+   * @param fileName                 file name of the document
+   * @param storageDefinition        storage definition to save the document
+   * @param fileRepoFactory          file repo factory to send the document
+   * @param subFunction              caller
+   * @param outboundConnectorContext context of the task
+   * @param incrementalSave          the document is a loaded document, and the operation only appended objects: see
+   *                                 createPdfFileVariable
+   * @return the pdfOutput, completed
+   * @throws ConnectorException different exception can be produced
+   */
+  public static PdfOutput savePdfFile(PdfOutput pdfOutput,
+                                      PDDocument destinationDocument,
+                                      String fileName,
+                                      StorageDefinition storageDefinition,
+                                      FileRepoFactory fileRepoFactory,
+                                      PdfSubFunction subFunction,
+                                      OutboundConnectorContext outboundConnectorContext,
+                                      boolean incrementalSave) throws ConnectorException {
+    // First, save the document to a FileVariable
+    FileVariable fileVariableOut = createPdfFileVariable(destinationDocument, fileName, storageDefinition, subFunction,
+        incrementalSave);
 
+    // Second, write it to the fileRepo
+    try {
+      long beginStore = System.currentTimeMillis();
+      FileVariableReference outputFileReference = DocumentStorage.saveFileVariable(fileVariableOut, fileRepoFactory,
+          outboundConnectorContext);
+      PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.STORE, System.currentTimeMillis() - beginStore);
+      PdfMetrics.recordBytesOut(subFunction, fileVariableOut.getValue().length);
       pdfOutput.destinationFile = outputFileReference.toJson();
       return pdfOutput;
     } catch (Exception e) {
@@ -103,6 +104,98 @@ public class SavePdfDocument {
     }
   }
 
+  /**
+   * Serialize a PDF document in a FileVariable.
+   * PDFBox streams the document to a temporary file, then the file is read in one array of the exact size: the heap
+   * never contains a growing buffer plus a copy of the document.
+   *
+   * @param pdfDocument       pdf document to serialize
+   * @param fileName          file name of the document
+   * @param storageDefinition storage definition to save the document
+   * @param subFunction       caller
+   * @return the FileVariable, ready to be saved
+   * @throws ConnectorException if the document can't be serialized
+   */
+  public static FileVariable createPdfFileVariable(PDDocument pdfDocument,
+                                                   String fileName,
+                                                   StorageDefinition storageDefinition,
+                                                   PdfSubFunction subFunction) throws ConnectorException {
+    return createPdfFileVariable(pdfDocument, fileName, storageDefinition, subFunction, false);
+  }
+
+  /**
+   * Serialize a PDF document in a FileVariable.
+   * With an incremental save, only the objects flagged as updated are written after the original bytes: the time and
+   * the I/O follow the size of the change, not the size of the document. The operation must flag the objects it
+   * changed (setNeedToBeUpdated). If the incremental save is not possible (document not loaded from a source), a
+   * complete save is done.
+   *
+   * @param pdfDocument       pdf document to serialize
+   * @param fileName          file name of the document
+   * @param storageDefinition storage definition to save the document
+   * @param subFunction       caller
+   * @param incrementalSave   true to try an incremental save
+   * @return the FileVariable, ready to be saved
+   * @throws ConnectorException if the document can't be serialized
+   */
+  public static FileVariable createPdfFileVariable(PDDocument pdfDocument,
+                                                   String fileName,
+                                                   StorageDefinition storageDefinition,
+                                                   PdfSubFunction subFunction,
+                                                   boolean incrementalSave) throws ConnectorException {
+    FileVariable fileVariableOut = new FileVariable();
+    Path tempFile = null;
+    try {
+      long beginSerialize = System.currentTimeMillis();
+      tempFile = Files.createTempFile("pdf-connector-", ".pdf");
+      if (!incrementalSave || !saveIncremental(pdfDocument, tempFile, subFunction))
+        pdfDocument.save(tempFile.toFile());
+
+      fileVariableOut.setValue(Files.readAllBytes(tempFile));
+      PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.SERIALIZE, System.currentTimeMillis() - beginSerialize);
+      fileVariableOut.setName(fileName);
+      fileVariableOut.setStorageDefinition(storageDefinition);
+      return fileVariableOut;
+    } catch (Exception e) {
+      logger.error("{} Error during save to name[{}] StorageDefinition[{}] : {}",
+          PdfToolbox.getLogSignature(subFunction), fileName, storageDefinition, e.getMessage());
+
+      throw new ConnectorException(ERROR_CREATE_FILEVARIABLE,
+          "Name [" + fileName + "] StorageDefinition [" + storageDefinition + "] Error " + e);
+    } finally {
+      deleteTempFile(tempFile);
+    }
+  }
+
+  /**
+   * Save the document with an incremental update
+   *
+   * @param pdfDocument document to save
+   * @param tempFile    file to write
+   * @param subFunction caller
+   * @return true if the document is saved, false if the incremental save is not possible
+   */
+  private static boolean saveIncremental(PDDocument pdfDocument, Path tempFile, PdfSubFunction subFunction) {
+    try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+      pdfDocument.saveIncremental(outputStream);
+      return true;
+    } catch (Exception e) {
+      logger.info("{} Incremental save not possible, save the complete document : {}",
+          PdfToolbox.getLogSignature(subFunction), e.getMessage());
+      return false;
+    }
+  }
+
+  private static void deleteTempFile(Path tempFile) {
+    if (tempFile == null)
+      return;
+    try {
+      Files.deleteIfExists(tempFile);
+    } catch (Exception e) {
+      logger.error("Can't delete temporary file [{}] : {}", tempFile, e.getMessage());
+    }
+  }
+
   /**
    * Save file
    * @param pdfOutput pdfOutput to save
@@ -117,10 +210,32 @@ public class SavePdfDocument {
                               FileRepoFactory fileRepoFactory,
                               PdfSubFunction subFunction,
                               OutboundConnectorContext outboundConnectorContext) throws ConnectorException {
+    pdfOutput.addDestinationFileInList(
+        saveFileVariable(fileVariable, fileRepoFactory, subFunction, outboundConnectorContext));
+  }
+
+  /**
+   * Save file, and return the reference
+   * @param fileVariable file variable to save the value
+   * @param fileRepoFactory repository
+   * @param subFunction subfunction to log
+   * @param outboundConnectorContext Outbound connector
+   * @return the reference of the file saved, in JSON
+   * @throws ConnectorException
+   */
+  public static String saveFileVariable(FileVariable fileVariable,
+                                        FileRepoFactory fileRepoFactory,
+                                        PdfSubFunction subFunction,
+                                        OutboundConnectorContext outboundConnectorContext) throws ConnectorException {
 
     try {
-      FileVariableReference outputFileReference = fileRepoFactory.saveFileVariable(fileVariable,outboundConnectorContext);
-      pdfOutput.addDestinationFileInList(outputFileReference.toJson());
+      long beginStore = System.currentTimeMillis();
+      FileVariableReference outputFileReference = DocumentStorage.saveFileVariable(fileVariable, fileRepoFactory,
+          outboundConnectorContext);
+      PdfMetrics.recordStage(subFunction, PdfMetrics.Stage.STORE, System.currentTimeMillis() - beginStore);
+      if (fileVariable.isValueBytes())
+        PdfMetrics.recordBytesOut(subFunction, fileVariable.getValue().length);
+      return outputFileReference.toJson();
     } catch (Exception e) {
       logger.error("{} Error during save FileVariable[{}] StorageDefinition[{}] : {}",
           PdfToolbox.getLogSignature(subFunction), fileVariable.getName(), fileVariable.getStorageDefinition(),
@@ -0,0 +1,308 @@
+package io.camunda.connector.pdf.sharedfunctions;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  SourceDocumentCache                                                 */
+/*                                                                      */
+/*  Cache of the source documents fetched from the storage, shared by   */
+/*  all jobs of the JVM. Key is the JSON of the FileVariableReference.  */
+/*  The memory tier is a LRU bounded by the total number of bytes; the  */
+/*  entries evicted may be spilled to a disk tier, bounded too.         */
+/*  An entry expires after a TTL: the storage may change the document   */
+/*  behind the same reference.                                          */
+/*  The cache is disabled by default (pdf.source-cache.max-bytes=0)     */
+/* ******************************************************************** */
+
+import io.camunda.connector.pdf.toolbox.PdfConfiguration;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.storage.StorageDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SourceDocumentCache {
+  /**
+   * Maximum number of bytes kept in memory. 0 disables the cache
+   */
+  public static final String CACHE_MAX_BYTES = "pdf.source-cache.max-bytes";
+  /**
+   * Time to live of an entry, in seconds
+   */
+  public static final String CACHE_TTL_SECONDS = "pdf.source-cache.ttl-seconds";
+  /**
+   * Directory of the disk tier. Not set: no disk tier
+   */
+  public static final String CACHE_DISK_DIRECTORY = "pdf.source-cache.disk-directory";
+  /**
+   * Maximum number of bytes kept on the disk tier
+   */
+  public static final String CACHE_DISK_MAX_BYTES = "pdf.source-cache.disk-max-bytes";
+
+  private static final Logger logger = LoggerFactory.getLogger(SourceDocumentCache.class.getName());
+
+  private final long maxBytes;
+  private final long ttlMs;
+  private final Path diskDirectory;
+  private final long diskMaxBytes;
+
+  // access order: the first entry is the least recently used
+  private final LinkedHashMap<String, MemoryEntry> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, DiskEntry> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+  private long memoryBytes = 0;
+  private long diskBytes = 0;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong diskHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private SourceDocumentCache() {
+    maxBytes = PdfConfiguration.getLong(CACHE_MAX_BYTES, 0);
+    ttlMs = PdfConfiguration.getLong(CACHE_TTL_SECONDS, 600) * 1000;
+    diskMaxBytes = PdfConfiguration.getLong(CACHE_DISK_MAX_BYTES, 1024L * 1024 * 1024);
+    diskDirectory = getDiskDirectory(PdfConfiguration.getString(CACHE_DISK_DIRECTORY, null));
+    if (isEnabled())
+      logger.info("SourceDocumentCache: memory {} bytes, ttl {} s, disk tier [{}] {} bytes", maxBytes, ttlMs / 1000,
+          diskDirectory == null ? "none" : diskDirectory, diskDirectory == null ? 0 : diskMaxBytes);
+  }
+
+  /**
+   * Return the cache. It is built at the first call.
+   *
+   * @return the cache
+   */
+  public static SourceDocumentCache getInstance() {
+    return CacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return maxBytes > 0;
+  }
+
+  /**
+   * Return the document, if it is in the cache and not expired.
+   * The lock protects the tiers only: a disk entry is removed under the lock, then read after it is released.
+   *
+   * @param key JSON of the reference
+   * @return a new FileVariable sharing the content of the cache (the content must not be modified), or null
+   */
+  public FileVariable get(String key) {
+    if (!isEnabled())
+      return null;
+    long now = System.currentTimeMillis();
+    DiskEntry diskEntry;
+    synchronized (this) {
+      MemoryEntry memoryEntry = memoryEntries.get(key);
+      if (memoryEntry != null) {
+        if (now - memoryEntry.createdTime() <= ttlMs) {
+          hits.incrementAndGet();
+          return memoryEntry.toFileVariable();
+        }
+        removeMemory(key);
+        evictions.incrementAndGet();
+      }
+      // the entry leaves the disk tier: a concurrent get of the same key is a miss, not a read of a deleted file
+      diskEntry = diskEntries.remove(key);
+      if (diskEntry != null)
+        diskBytes -= diskEntry.size();
+    }
+
+    if (diskEntry != null) {
+      try {
+        if (now - diskEntry.createdTime() <= ttlMs) {
+          // promote the entry to the memory tier
+          MemoryEntry promoted = new MemoryEntry(Files.readAllBytes(diskEntry.path()), diskEntry.name(),
+              diskEntry.storageDefinition(), diskEntry.createdTime());
+          diskHits.incrementAndGet();
+          List<Map.Entry<String, MemoryEntry>> evicted;
+          synchronized (this) {
+            // a put during the read has a newer content: keep it
+            evicted = memoryEntries.containsKey(key) ? List.of() : putMemory(key, promoted);
+          }
+          spillToDisk(evicted);
+          return promoted.toFileVariable();
+        }
+        evictions.incrementAndGet();
+      } catch (Exception e) {
+        logger.error("SourceDocumentCache: can't read [{}] : {}", diskEntry.path(), e.getMessage());
+      } finally {
+        deleteFile(diskEntry.path());
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Keep a document. A document larger than the memory tier is not kept.
+   * The entries evicted are spilled to the disk tier after the lock is released.
+   *
+   * @param key          JSON of the reference
+   * @param fileVariable document loaded
+   */
+  public void put(String key, FileVariable fileVariable) {
+    if (!isEnabled() || !fileVariable.isValueBytes() || fileVariable.getValue() == null
+        || fileVariable.getValue().length > maxBytes)
+      return;
+    List<Map.Entry<String, MemoryEntry>> evicted;
+    synchronized (this) {
+      evicted = putMemory(key,
+          new MemoryEntry(fileVariable.getValue(), fileVariable.getName(), fileVariable.getStorageDefinition(),
+              System.currentTimeMillis()));
+    }
+    spillToDisk(evicted);
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getDiskHits() {
+    return diskHits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  public synchronized long getMemoryBytes() {
+    return memoryBytes;
+  }
+
+  public synchronized long getDiskBytes() {
+    return diskBytes;
+  }
+
+  public String getSynthesis() {
+    return "hits " + hits.get() + " diskHits " + diskHits.get() + " misses " + misses.get() + " evictions "
+        + evictions.get() + " memoryBytes " + getMemoryBytes() + " diskBytes " + getDiskBytes();
+  }
+
+  /**
+   * Add an entry in the memory tier. Call it under the lock.
+   *
+   * @return the entries evicted, to spill to the disk tier once the lock is released
+   */
+  private List<Map.Entry<String, MemoryEntry>> putMemory(String key, MemoryEntry memoryEntry) {
+    removeMemory(key);
+    memoryEntries.put(key, memoryEntry);
+    memoryBytes += memoryEntry.content().length;
+
+    List<Map.Entry<String, MemoryEntry>> evicted = new ArrayList<>();
+    Iterator<Map.Entry<String, MemoryEntry>> iterator = memoryEntries.entrySet().iterator();
+    while (memoryBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<String, MemoryEntry> eldest = iterator.next();
+      iterator.remove();
+      memoryBytes -= eldest.getValue().content().length;
+      evictions.incrementAndGet();
+      evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+    }
+    return evicted;
+  }
+
+  private void removeMemory(String key) {
+    MemoryEntry previous = memoryEntries.remove(key);
+    if (previous != null)
+      memoryBytes -= previous.content().length;
+  }
+
+  /**
+   * Move the entries evicted from the memory to the disk tier, if it exists. Call it without the lock: the file is
+   * written first, then the entry is registered under the lock, and the files removed are deleted after it.
+   */
+  private void spillToDisk(List<Map.Entry<String, MemoryEntry>> evicted) {
+    for (Map.Entry<String, MemoryEntry> entry : evicted) {
+      String key = entry.getKey();
+      MemoryEntry memoryEntry = entry.getValue();
+      long size = memoryEntry.content().length;
+      if (diskDirectory == null || size > diskMaxBytes
+          || System.currentTimeMillis() - memoryEntry.createdTime() > ttlMs)
+        continue;
+      Path path;
+      try {
+        path = Files.createTempFile(diskDirectory, "source-", ".cache");
+        Files.write(path, memoryEntry.content());
+      } catch (Exception e) {
+        logger.error("SourceDocumentCache: can't spill to [{}] : {}", diskDirectory, e.getMessage());
+        continue;
+      }
+
+      List<Path> filesToDelete = new ArrayList<>();
+      synchronized (this) {
+        DiskEntry current = diskEntries.get(key);
+        if (memoryEntries.containsKey(key)
+            || (current != null && current.createdTime() > memoryEntry.createdTime())) {
+          // the document came back in memory, or a newer one was spilled, during the write: the file is useless
+          filesToDelete.add(path);
+        } else {
+          DiskEntry previous = diskEntries.put(key,
+              new DiskEntry(path, size, memoryEntry.name(), memoryEntry.storageDefinition(),
+                  memoryEntry.createdTime()));
+          if (previous != null) {
+            diskBytes -= previous.size();
+            filesToDelete.add(previous.path());
+          }
+          diskBytes += size;
+
+          Iterator<DiskEntry> iterator = diskEntries.values().iterator();
+          while (diskBytes > diskMaxBytes && iterator.hasNext()) {
+            DiskEntry eldest = iterator.next();
+            iterator.remove();
+            diskBytes -= eldest.size();
+            filesToDelete.add(eldest.path());
+          }
+        }
+      }
+      filesToDelete.forEach(SourceDocumentCache::deleteFile);
+    }
+  }
+
+  private static Path getDiskDirectory(String directory) {
+    if (directory == null)
+      return null;
+    try {
+      return Files.createDirectories(Paths.get(directory));
+    } catch (Exception e) {
+      logger.error("SourceDocumentCache: can't use the directory [{}], no disk tier : {}", directory, e.getMessage());
+      return null;
+    }
+  }
+
+  private static void deleteFile(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (Exception e) {
+      logger.error("SourceDocumentCache: can't delete [{}] : {}", path, e.getMessage());
+    }
+  }
+
+  private record MemoryEntry(byte[] content, String name, StorageDefinition storageDefinition, long createdTime) {
+    FileVariable toFileVariable() {
+      FileVariable fileVariable = new FileVariable();
+      fileVariable.setValue(content);
+      fileVariable.setName(name);
+      fileVariable.setStorageDefinition(storageDefinition);
+      return fileVariable;
+    }
+  }
+
+  private record DiskEntry(Path path, long size, String name, StorageDefinition storageDefinition, long createdTime) {
+  }
+
+  private static class CacheHolder {
+    private static final SourceDocumentCache INSTANCE = new SourceDocumentCache();
+  }
+}
@@ -0,0 +1,387 @@
+package io.camunda.connector.pdf.split;
+
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.cherrytemplate.RunnerParameter;
+import io.camunda.connector.pdf.PdfInput;
+import io.camunda.connector.pdf.PdfOutput;
+import io.camunda.connector.pdf.sharedfunctions.LoadDocument;
+import io.camunda.connector.pdf.sharedfunctions.LoadPdfDocument;
+import io.camunda.connector.pdf.sharedfunctions.RetrieveStorageDefinition;
+import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
+import io.camunda.connector.pdf.toolbox.ExtractPageExpression;
+import io.camunda.connector.pdf.toolbox.PdfError;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
+import io.camunda.connector.pdf.toolbox.PdfSubFunction;
+import io.camunda.connector.pdf.toolbox.PdfToolbox;
+import io.camunda.filestorage.FileRepoFactory;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.storage.StorageDefinition;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Split a PDF in multiple documents. The source is loaded one time, then each part is built from its pages.
+ * EXPRESSIONS: one part per extract expression (see ExtractPageExpression)
+ * EVERY_N_PAGES: one part every N pages
+ * BOOKMARKS: one part per top-level bookmark, from the bookmark page to the page before the next bookmark
+ */
+public class PdfSplitFunction implements PdfSubFunction {
+  public static final String ERROR_SPLIT_ERROR = "SPLIT_ERROR";
+  public static final String ERROR_SPLIT_ERROR_LABEL = "Split error";
+  public static final String ERROR_EMPTY_PART = "EMPTY_PART";
+  public static final String ERROR_EMPTY_PART_LABEL = "A part does not contain any page";
+  public static final String ERROR_NO_BOOKMARK = "NO_BOOKMARK";
+  public static final String ERROR_NO_BOOKMARK_LABEL = "The document does not contain any bookmark to split on";
+  private static final Map<String, String> listBpmnErrors = new HashMap<>();
+
+  static {
+    listBpmnErrors.putAll(LoadDocument.getBpmnErrors());
+    listBpmnErrors.putAll(RetrieveStorageDefinition.getBpmnErrors());
+    listBpmnErrors.putAll(LoadPdfDocument.getBpmnErrors());
+    listBpmnErrors.putAll(SavePdfDocument.getBpmnErrors());
+    listBpmnErrors.putAll(ExtractPageExpression.getBpmnErrorExtractExpression());
+    listBpmnErrors.put(ERROR_SPLIT_ERROR, ERROR_SPLIT_ERROR_LABEL);
+    listBpmnErrors.put(ERROR_EMPTY_PART, ERROR_EMPTY_PART_LABEL);
+    listBpmnErrors.put(ERROR_NO_BOOKMARK, ERROR_NO_BOOKMARK_LABEL);
+  }
+
+  Logger logger = LoggerFactory.getLogger(PdfSplitFunction.class.getName());
+
+  public enum SplitMode {EXPRESSIONS, EVERY_N_PAGES, BOOKMARKS}
+
+  /**
+   * @param pdfInput                 input of connector
+   * @param outboundConnectorContext context of connector
+   * @return the output
+   * @throws ConnectorException for any error
+   */
+  public PdfOutput executeSubFunction(PdfInput pdfInput, OutboundConnectorContext outboundConnectorContext)
+      throws ConnectorException {
+    logger.debug("{} Start Split", PdfToolbox.getLogSignature(this));
+
+    FileRepoFactory fileRepoFactory = FileRepoFactory.getInstance();
+    PDDocument sourceDocument = null;
+    ExecutorService saveExecutor = null;
+    List<Future<String>> listSaves = new ArrayList<>();
+    long beginTime = System.currentTimeMillis();
+
+    try {
+      SplitMode splitMode = getSplitMode(pdfInput.getSplitMode());
+      logger.info("{} Start Split sourceDocument=[{}] mode[{}]", PdfToolbox.getLogSignature(this),
+          pdfInput.getSourceFile(), splitMode);
+
+      FileVariable docSource = LoadDocument.loadDocSource(pdfInput.getSourceFile(), fileRepoFactory, this,
+          outboundConnectorContext);
+
+      String destinationFileName = pdfInput.getDestinationFileName();
+      StorageDefinition destinationStorageDefinition = RetrieveStorageDefinition.getStorageDefinition(pdfInput,
+          docSource, true, this);
+
+      sourceDocument = LoadPdfDocument.loadPdfDocument(docSource,
+          LoadPdfDocument.getMemoryMode(pdfInput.getLoadMemoryMode()), this);
+
+      List<List<Integer>> listParts = switch (splitMode) {
+        case EXPRESSIONS -> getPartsFromExpressions(pdfInput.getSplitExpressions(), sourceDocument);
+        case EVERY_N_PAGES -> getPartsEveryNPages(pdfInput.getSplitEveryNPages(), sourceDocument);
+        case BOOKMARKS -> getPartsFromBookmarks(sourceDocument);
+      };
+
+      // parts are built one by one from the source, then saved in parallel. A part waits for the save started
+      // <parallelism> parts before: the number of parts kept in memory is bounded
+      int parallelism = (int) Math.max(1, Math.min(pdfInput.getSplitParallelism(), listParts.size()));
+      saveExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+        Thread thread = new Thread(r, "pdf-split-save");
+        thread.setDaemon(true);
+        return thread;
+      });
+      for (int partIndex = 0; partIndex < listParts.size(); partIndex++) {
+        if (partIndex >= parallelism)
+          waitSave(listSaves.get(partIndex - parallelism));
+        FileVariable partFileVariable = createPart(sourceDocument, listParts.get(partIndex),
+            getPartFileName(destinationFileName, partIndex + 1), destinationStorageDefinition);
+        listSaves.add(saveExecutor.submit(
+            () -> SavePdfDocument.saveFileVariable(partFileVariable, fileRepoFactory, this, outboundConnectorContext)));
+      }
+
+      PdfOutput pdfOutput = new PdfOutput();
+      for (Future<String> save : listSaves) {
+        pdfOutput.addDestinationFileInList(waitSave(save));
+      }
+
+      logger.info("{} Split document[{}] ({} pages) in {} parts mode {} in {} ms", PdfToolbox.getLogSignature(this),
+          docSource.getName(), sourceDocument.getNumberOfPages(), listParts.size(), splitMode,
+          System.currentTimeMillis() - beginTime);
+      return pdfOutput;
+    } catch (ConnectorException ce) {
+      // already logged
+      throw ce;
+    } catch (Exception e) {
+      logger.error("{} Exception during split {} ", PdfToolbox.getLogSignature(this), e);
+      throw new ConnectorException(ERROR_SPLIT_ERROR, "Error " + e);
+    } finally {
+      if (saveExecutor != null)
+        saveExecutor.shutdownNow();
+      if (sourceDocument != null)
+        try {
+          sourceDocument.close();
+        } catch (Exception e) {
+          // don't care
+        }
+    } // end finally
+  }
+
+  /**
+   * One part per expression
+   *
+   * @param listExpressions list of extract expressions
+   * @param sourceDocument  source document
+   * @return list of parts, a part is a list of page indexes (start at 0)
+   * @throws ConnectorException if an expression is incorrect, or selects no page
+   */
+  private List<List<Integer>> getPartsFromExpressions(List<String> listExpressions, PDDocument sourceDocument)
+      throws ConnectorException {
+    if (listExpressions == null || listExpressions.isEmpty())
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          PdfToolbox.getLogSignature(this) + "A list of expressions is expected in [" + PdfInput.SPLIT_EXPRESSIONS
+              + "]");
+    List<List<Integer>> listParts = new ArrayList<>();
+    for (String expression : listExpressions) {
+      List<Integer> listPageIndexes = new ExtractPageExpression(expression, sourceDocument,
+          this).getSelectedPageIndexes();
+      if (listPageIndexes.isEmpty())
+        throw new ConnectorException(ERROR_EMPTY_PART,
+            PdfToolbox.getLogSignature(this) + "Expression [" + expression + "] does not select any page");
+      listParts.add(listPageIndexes);
+    }
+    return listParts;
+  }
+
+  /**
+   * One part every N pages. The last part may be shorter
+   *
+   * @param everyNPages    number of pages per part
+   * @param sourceDocument source document
+   * @return list of parts, a part is a list of page indexes (start at 0)
+   * @throws ConnectorException if the number of pages is incorrect
+   */
+  private List<List<Integer>> getPartsEveryNPages(Long everyNPages, PDDocument sourceDocument)
+      throws ConnectorException {
+    if (everyNPages == null || everyNPages < 1)
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          PdfToolbox.getLogSignature(this) + "A number of pages greater than 0 is expected in ["
+              + PdfInput.SPLIT_EVERY_N_PAGES + "], received [" + everyNPages + "]");
+    int numberOfPages = sourceDocument.getNumberOfPages();
+    List<List<Integer>> listParts = new ArrayList<>();
+    for (long firstIndex = 0; firstIndex < numberOfPages; firstIndex += everyNPages) {
+      listParts.add(
+          IntStream.range((int) firstIndex, (int) Math.min(numberOfPages, firstIndex + everyNPages)).boxed().toList());
+    }
+    return listParts;
+  }
+
+  /**
+   * One part per top-level bookmark. Pages before the first bookmark belong to the first part.
+   * Bookmarks pointing to the same page produce one part.
+   *
+   * @param sourceDocument source document
+   * @return list of parts, a part is a list of page indexes (start at 0)
+   * @throws ConnectorException if the document does not have any bookmark
+   * @throws IOException        if a bookmark can't be read
+   */
+  private List<List<Integer>> getPartsFromBookmarks(PDDocument sourceDocument) throws ConnectorException, IOException {
+    TreeSet<Integer> firstPageIndexes = new TreeSet<>();
+    PDDocumentOutline outline = sourceDocument.getDocumentCatalog().getDocumentOutline();
+    if (outline != null) {
+      for (PDOutlineItem item : outline.children()) {
+        PDPage page = item.findDestinationPage(sourceDocument);
+        int pageIndex = page == null ? -1 : sourceDocument.getPages().indexOf(page);
+        if (pageIndex >= 0)
+          firstPageIndexes.add(pageIndex);
+      }
+    }
+    if (firstPageIndexes.isEmpty())
+      throw new ConnectorException(ERROR_NO_BOOKMARK,
+          PdfToolbox.getLogSignature(this) + "No top-level bookmark pointing to a page in the document");
+
+    // the first part starts at the beginning of the document
+    firstPageIndexes.remove(firstPageIndexes.first());
+    firstPageIndexes.add(0);
+    List<Integer> listFirstIndexes = new ArrayList<>(firstPageIndexes);
+    List<List<Integer>> listParts = new ArrayList<>();
+    for (int i = 0; i < listFirstIndexes.size(); i++) {
+      int endIndex = i + 1 < listFirstIndexes.size() ?
+          listFirstIndexes.get(i + 1) :
+          sourceDocument.getNumberOfPages();
+      listParts.add(IntStream.range(listFirstIndexes.get(i), endIndex).boxed().toList());
+    }
+    return listParts;
+  }
+
+  /**
+   * Build one part from the source, and serialize it
+   *
+   * @param sourceDocument    source document
+   * @param listPageIndexes   pages of the part (index start at 0)
+   * @param fileName          file name of the part
+   * @param storageDefinition storage definition to save the part
+   * @return the part, ready to be saved
+   * @throws ConnectorException if the part can't be serialized
+   */
+  private FileVariable createPart(PDDocument sourceDocument,
+                                  List<Integer> listPageIndexes,
+                                  String fileName,
+                                  StorageDefinition storageDefinition) throws ConnectorException {
+    // the part shares the pages of the source: it must be serialized before the source is closed
+    try (PDDocument partDocument = new PDDocument()) {
+      long beginProcess = System.currentTimeMillis();
+      for (int pageIndex : listPageIndexes) {
+        partDocument.addPage(sourceDocument.getPage(pageIndex));
+      }
+      PdfMetrics.recordStage(this, PdfMetrics.Stage.PROCESS, System.currentTimeMillis() - beginProcess);
+      PdfMetrics.countPages(this, listPageIndexes.size());
+      return SavePdfDocument.createPdfFileVariable(partDocument, fileName, storageDefinition, this);
+    } catch (IOException e) {
+      // the close of a document not saved: don't care
+      throw new ConnectorException(ERROR_SPLIT_ERROR, "Error " + e);
+    }
+  }
+
+  /**
+   * Wait for a save
+   *
+   * @param save save in progress
+   * @return the reference of the part saved, in JSON
+   * @throws Exception the exception thrown by the save (a ConnectorException is thrown as it is)
+   */
+  private static String waitSave(Future<String> save) throws Exception {
+    try {
+      return save.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause)
+        throw cause;
+      throw e;
+    }
+  }
+
+  /**
+   * Name of a part: the number is placed before the extension. "letter.pdf" gives "letter_1.pdf", "letter_2.pdf"...
+   *
+   * @param destinationFileName destination file name
+   * @param partNumber          number of the part, start at 1
+   * @return the name of the part
+   */
+  private static String getPartFileName(String destinationFileName, int partNumber) {
+    String fileName = destinationFileName == null ? "split" : destinationFileName;
+    int extensionPosition = fileName.lastIndexOf('.');
+    if (extensionPosition <= 0)
+      return fileName + "_" + partNumber + ".pdf";
+    return fileName.substring(0, extensionPosition) + "_" + partNumber + fileName.substring(extensionPosition);
+  }
+
+  /**
+   * Decode the split mode given as a parameter
+   *
+   * @param splitModeSt split mode. Null or empty means EXPRESSIONS
+   * @return the split mode
+   * @throws ConnectorException if the value is unknown
+   */
+  private static SplitMode getSplitMode(String splitModeSt) throws ConnectorException {
+    if (splitModeSt == null || splitModeSt.trim().isEmpty())
+      return SplitMode.EXPRESSIONS;
+    try {
+      return SplitMode.valueOf(splitModeSt.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConnectorException(PdfError.ERROR_BAD_INPUTPARAMETER,
+          "Split mode [" + splitModeSt + "] is unknown, expected " + Arrays.toString(SplitMode.values()));
+    }
+  }
+
+  public String getSubFunctionName() {
+    return "Split";
+  }
+
+  @Override
+  public String getSubFunctionDescription() {
+    return "Split a PDF in multiple PDFs: by expressions, every N pages, or on bookmarks";
+  }
+
+  @Override
+  public String getSubFunctionType() {
+    return "split";
+  }
+
+  public Map<String, String> getSubFunctionListBpmnErrors() {
+    return listBpmnErrors;
+  }
+
+  @Override
+  public List<RunnerParameter> getInputsParameter() {
+    return List.of(new RunnerParameter(PdfInput.SOURCE_FILE, // name
+            "Source file", // label
+            Object.class, // class
+            RunnerParameter.Level.REQUIRED, // level
+            "FileVariable for the file to split"),
+
+        new RunnerParameter(PdfInput.SPLIT_MODE, // name
+            "Split mode", // label
+            String.class, // class
+            RunnerParameter.Level.OPTIONAL, // level
+            "How parts are defined: a list of extract expressions (default), every N pages, or on the top-level bookmarks") // param
+            .addChoice(PdfInput.SPLIT_MODE_EXPRESSIONS, "Expressions")
+            .addChoice(PdfInput.SPLIT_MODE_EVERY_N_PAGES, "Every N pages")
+            .addChoice(PdfInput.SPLIT_MODE_BOOKMARKS, "Bookmarks"),
+
+        new RunnerParameter(PdfInput.SPLIT_EXPRESSIONS, // name
+            "Split expressions", // label
+            List.class, // class
+            RunnerParameter.Level.OPTIONAL, // level
+            "Mode Expressions: one part per expression, same syntax as the extract expression. Example: [\"1-3\", \"4-n\"]"),
+
+        new RunnerParameter(PdfInput.SPLIT_EVERY_N_PAGES, // name
+            "Every N pages", // label
+            Long.class, // class
+            RunnerParameter.Level.OPTIONAL, // level
+            "Mode Every N pages: number of pages in each part. The last part may be shorter"),
+
+        new RunnerParameter(PdfInput.SPLIT_PARALLELISM, // name
+            "Save parallelism", // label
+            Long.class, // class
+            RunnerParameter.Level.OPTIONAL, // level
+            "Number of parts saved in parallel (default is 4)"),
+
+        PdfInput.pdfParameterLoadMemoryMode,
+        PdfInput.pdfParameterDestinationFileName,
+        PdfInput.pdfParameterDestinationJsonStorageDefinition,
+        PdfInput.pdfParameterDestinationStorageDefinition,
+        PdfInput.pdfParameterDestinationStorageDefinitionComplement,
+        PdfInput.pdfParameterDestinationStorageDefinitionCmis);
+  }
+
+  @Override
+  public List<RunnerParameter> getOutputsParameter() {
+    return List.of(PdfOutput.PDF_PARAMETER_LIST_DESTINATION_FILE);
+  }
+
+  @Override
+  public Map<String, String> getBpmnErrors() {
+    return listBpmnErrors;
+  }
+}
@@ -3,25 +3,70 @@ package io.camunda.connector.pdf.toolbox;
 import io.camunda.connector.api.error.ConnectorException;
 import org.apache.pdfbox.pdmodel.PDDocument;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Expression to select pages. The expression is compiled one time, for a document.
+ * An expression is a list of clauses separated by a comma. A clause is [range][:odd|:even][/step]
+ * range: a page (4), or two pages (2-8). A page is a number (start at 1), n (last page) or rK (K-th page from the end,
+ * r1 is the last page). A reverse range (8-2) selects the pages from the first down to the last.
+ * :odd, :even: keep only the odd (or even) page numbers of the range
+ * /step: keep one page every step pages, from the first page of the range, in the direction of the range
+ * Example: "1-3, 10-n:even, r3-n, 1-n/5, n-1"
+ * Pages are selected in the order of the expression. A page selected twice is kept at its first position only.
+ * A range starting after the end of the document selects nothing; the pages of a range outside the document (after
+ * the end, or before the first page with rK) are ignored.
+ */
 public class ExtractPageExpression {
 
-  public static final String ERROR_INVALID_EXPRESSION_LABEL = "Invalid expression to pilot the extraction. Format must be <number1>-<number2> where number1<=number2. n means 'end of document' : example, 10-n";
+  public static final String ERROR_INVALID_EXPRESSION_LABEL = "Invalid expression to pilot the extraction. Format must be <number1>-<number2>[:odd|:even][/step]. n means 'end of document', rK the K-th page from the end : example, 10-n";
   private static final String ERROR_INVALID_EXPRESSION = "INVALID_EXPRESSION";
-  private final String[] expressionsList;
+
+  private static final String PAGE_PATTERN = "n|r\\d+|\\d+";
+  private static final Pattern CLAUSE_PATTERN = Pattern.compile(
+      "^(?<first>" + PAGE_PATTERN + ")(?:-(?<last>" + PAGE_PATTERN + "))?(?::(?<parity>odd|even))?(?:/(?<step>\\d+))?$",
+      Pattern.CASE_INSENSITIVE);
+
   private final PdfSubFunction subFunction;
+  private final int numberOfPages;
+  // bit N is set if page N (start at 1) is selected
+  private final BitSet selectedPages = new BitSet();
+  // page index (start at 0) of the pages selected, in the order of the expression
+  private final List<Integer> listSelectedPageIndexes = new ArrayList<>();
 
   /**
    * @param expression  expression to manage
    * @param pdfDocument PDFDocument
    * @param subFunction caller
+   * @throws ConnectorException if the expression is incorrect
    */
-  public ExtractPageExpression(String expression, PDDocument pdfDocument, PdfSubFunction subFunction) {
-    this.subFunction = subFunction;
-    String extractExpressionResolved = expression.replace("n", String.valueOf(pdfDocument.getNumberOfPages()));
-    expressionsList = extractExpressionResolved.split(",", 0);
+  public ExtractPageExpression(String expression, PDDocument pdfDocument, PdfSubFunction subFunction)
+      throws ConnectorException {
+    this(expression, pdfDocument.getNumberOfPages(), subFunction);
+  }
 
+  /**
+   * @param expression    expression to manage
+   * @param numberOfPages number of pages in the document
+   * @param subFunction   caller
+   * @throws ConnectorException if the expression is incorrect
+   */
+  public ExtractPageExpression(String expression, int numberOfPages, PdfSubFunction subFunction)
+      throws ConnectorException {
+    this.subFunction = subFunction;
+    this.numberOfPages = numberOfPages;
+    if (expression == null || expression.trim().isEmpty())
+      throw new ConnectorException(ERROR_INVALID_EXPRESSION,
+          PdfToolbox.getLogSignature(subFunction) + "Expression is empty");
+    for (String oneExpression : expression.split(",", 0)) {
+      compileClause(oneExpression.replace(" ", ""));
+    }
   }
 
   /**
@@ -38,31 +83,105 @@ public class ExtractPageExpression {
    *
    * @param pageNumberToCheck page number to check, start at 1
    * @return true if the page is inside the expression, false else
-   * @throws ConnectorException if the expression is incorrect
    */
-  public boolean isPageInRange(int pageNumberToCheck) throws ConnectorException {
-    for (String oneExpression : this.expressionsList) {
-      int firstPage;
-      int lastPage;
-      // format must be <number1>-<number2> where number1<=number2
-      try {
-        String[] expressionDetail = oneExpression.split("-", 2);
-        firstPage = expressionDetail.length >= 1 ? Integer.parseInt(expressionDetail[0]) : -1;
-        lastPage = expressionDetail.length >= 2 ? Integer.parseInt(expressionDetail[1]) : firstPage;
-
-        if (firstPage == -1 || lastPage == -1 || firstPage > lastPage)
-          throw new ConnectorException(ERROR_INVALID_EXPRESSION, PdfToolbox.getLogSignature(subFunction)
-              + "Expression is <firstPage>-<lastPage> where firstPage<=lastPage :" + firstPage + "," + lastPage);
-      } catch (Exception e) {
+  public boolean isPageInRange(int pageNumberToCheck) {
+    return pageNumberToCheck >= 1 && selectedPages.get(pageNumberToCheck);
+  }
+
+  /**
+   * Return the pages selected by the expression, in the order of the expression. A page appears one time.
+   *
+   * @return list of page index (start at 0), for PDDocument.getPage()
+   */
+  public List<Integer> getSelectedPageIndexes() {
+    return Collections.unmodifiableList(listSelectedPageIndexes);
+  }
+
+  /**
+   * @return the number of pages selected
+   */
+  public int getNumberOfSelectedPages() {
+    return listSelectedPageIndexes.size();
+  }
+
+  /**
+   * Compile one clause, and mark its pages
+   *
+   * @param oneExpression clause
+   * @throws ConnectorException if the clause is incorrect
+   */
+  private void compileClause(String oneExpression) throws ConnectorException {
+    Matcher matcher = CLAUSE_PATTERN.matcher(oneExpression);
+    if (!matcher.matches())
+      throw new ConnectorException(ERROR_INVALID_EXPRESSION,
+          PdfToolbox.getLogSignature(subFunction) + "Expression must be <firstPage>-<lastPage>[:odd|:even][/step] : received["
+              + oneExpression + "]");
+    int firstPage = resolvePage(matcher.group("first"), oneExpression);
+    int lastPage = matcher.group("last") == null ? firstPage : resolvePage(matcher.group("last"), oneExpression);
+    String parity = matcher.group("parity");
+    int step = 1;
+    if (matcher.group("step") != null) {
+      step = parseNumber(matcher.group("step"), oneExpression);
+      if (step < 1)
         throw new ConnectorException(ERROR_INVALID_EXPRESSION,
-            PdfToolbox.getLogSignature(subFunction) + "Expression must be <firstPage>-<lastPage> : received["
-                + oneExpression + "] " + e);
-      }
-      for (int pageIndex = firstPage; pageIndex <= lastPage; pageIndex++) {
-        if (pageIndex == pageNumberToCheck)
-          return true;
+            PdfToolbox.getLogSignature(subFunction) + "Step must be greater than 0 : received[" + oneExpression + "]");
+    }
+
+    // decided on the resolved pages: 10-n, 10-r1, 10-7 and 10-12 on a 5 pages document select nothing
+    if (firstPage > numberOfPages)
+      return;
+    int direction = firstPage <= lastPage ? 1 : -1;
+    long nbPagesInRange = Math.abs((long) lastPage - firstPage) + 1;
+    // start at the first position inside the document (a rK range may start before page 1), stop at the first
+    // position outside
+    long pagesOutside = 1L - firstPage;
+    long position = direction > 0 && pagesOutside > 0 ? ((pagesOutside + step - 1) / step) * step : 0;
+    for (; position < nbPagesInRange; position += step) {
+      long pageNumber = firstPage + direction * position;
+      if (pageNumber > numberOfPages || pageNumber < 1)
+        break;
+      if (parity != null && (pageNumber % 2 == 1) != parity.equalsIgnoreCase("odd"))
+        continue;
+      // a page selected twice is kept at its first position: PDFBox can't add the same page twice in a document
+      if (!selectedPages.get((int) pageNumber)) {
+        selectedPages.set((int) pageNumber);
+        listSelectedPageIndexes.add((int) pageNumber - 1);
       }
     }
-    return false;
+  }
+
+  /**
+   * Resolve a page: a number, n (last page) or rK (K-th page from the end)
+   *
+   * @param page          page in the expression
+   * @param oneExpression clause, for the error
+   * @return the page number, start at 1. May be outside the document: after the end, or before page 1 for rK
+   * @throws ConnectorException if the page is incorrect
+   */
+  private int resolvePage(String page, String oneExpression) throws ConnectorException {
+    if (page.equalsIgnoreCase("n"))
+      return numberOfPages;
+    if (page.toLowerCase().startsWith("r")) {
+      int fromEnd = parseNumber(page.substring(1), oneExpression);
+      if (fromEnd < 1)
+        throw new ConnectorException(ERROR_INVALID_EXPRESSION,
+            PdfToolbox.getLogSignature(subFunction) + "Relative page start at r1 (last page) : received["
+                + oneExpression + "]");
+      return numberOfPages - fromEnd + 1;
+    }
+    int pageNumber = parseNumber(page, oneExpression);
+    if (pageNumber < 1)
+      throw new ConnectorException(ERROR_INVALID_EXPRESSION,
+          PdfToolbox.getLogSignature(subFunction) + "Page number start at 1 : received[" + oneExpression + "]");
+    return pageNumber;
+  }
+
+  private int parseNumber(String number, String oneExpression) throws ConnectorException {
+    try {
+      return Integer.parseInt(number);
+    } catch (NumberFormatException e) {
+      throw new ConnectorException(ERROR_INVALID_EXPRESSION,
+          PdfToolbox.getLogSignature(subFunction) + "Number expected : received[" + oneExpression + "] " + e);
+    }
   }
 }
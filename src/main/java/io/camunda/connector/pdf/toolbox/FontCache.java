@@ -0,0 +1,166 @@
+package io.camunda.connector.pdf.toolbox;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  FontCache                                                           */
+/*                                                                      */
+/*  TrueType fonts are read and parsed one time per JVM, then shared    */
+/*  between jobs. Each document gets its own PDType0Font built on the   */
+/*  shared font, which only embeds the glyphs used.                     */
+/*  Fonts are read from the directory PdfConfiguration.FONT_DIRECTORY.  */
+/* ******************************************************************** */
+
+import io.camunda.connector.api.error.ConnectorException;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class FontCache {
+  public static final String ERROR_UNKNOWN_FONT = "UNKNOWN_FONT";
+  public static final String ERROR_UNKNOWN_FONT_LABEL = "The font is not a standard font, and is not a TrueType font in the font directory";
+  public static final PDFont DEFAULT_FONT = PDType1Font.HELVETICA_BOLD;
+
+  private static final Logger logger = LoggerFactory.getLogger(FontCache.class.getName());
+  private static final String TRUETYPE_EXTENSION = ".ttf";
+
+  // the 14 standard fonts are never embedded: key is the name in uppercase (HELVETICA-BOLD)
+  private static final Map<String, PDFont> standardFonts = Stream.of(PDType1Font.TIMES_ROMAN, PDType1Font.TIMES_BOLD,
+          PDType1Font.TIMES_ITALIC, PDType1Font.TIMES_BOLD_ITALIC, PDType1Font.HELVETICA, PDType1Font.HELVETICA_BOLD,
+          PDType1Font.HELVETICA_OBLIQUE, PDType1Font.HELVETICA_BOLD_OBLIQUE, PDType1Font.COURIER, PDType1Font.COURIER_BOLD,
+          PDType1Font.COURIER_OBLIQUE, PDType1Font.COURIER_BOLD_OBLIQUE, PDType1Font.SYMBOL, PDType1Font.ZAPF_DINGBATS)
+      .collect(Collectors.toMap(font -> font.getName().toUpperCase(), Function.identity()));
+
+  // key is the file name of the font, in the font directory
+  private final Map<String, TrueTypeFont> trueTypeFonts = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private FontCache() {
+  }
+
+  /**
+   * Return the cache. It is built at the first call.
+   *
+   * @return the cache
+   */
+  public static FontCache getInstance() {
+    return CacheHolder.INSTANCE;
+  }
+
+  /**
+   * Return a font for a document
+   *
+   * @param document     document where the font is used
+   * @param fontName     a standard font (Helvetica-Bold, Times-Roman, Courier...) or the name of a TrueType font in the
+   *                     font directory (with or without .ttf). Null or empty means Helvetica-Bold
+   * @param embedSubset  true to embed only the glyphs used. The subset is built when the document is saved with
+   *                     PDDocument.save(), so an incremental save must embed the complete font
+   * @param subFunction  caller
+   * @return the font
+   * @throws ConnectorException if the font is unknown or can't be read
+   */
+  public PDFont getFont(PDDocument document, String fontName, boolean embedSubset, PdfSubFunction subFunction)
+      throws ConnectorException {
+    if (fontName == null || fontName.trim().isEmpty())
+      return DEFAULT_FONT;
+    PDFont standardFont = standardFonts.get(fontName.trim().toUpperCase());
+    if (standardFont != null)
+      return standardFont;
+
+    TrueTypeFont trueTypeFont = getTrueTypeFont(fontName.trim(), subFunction);
+    try {
+      // the document does not own the TrueTypeFont: it is not closed with the document
+      return PDType0Font.load(document, trueTypeFont, embedSubset);
+    } catch (Exception e) {
+      throw new ConnectorException(ERROR_UNKNOWN_FONT,
+          PdfToolbox.getLogSignature(subFunction) + "Font [" + fontName + "] can't be embedded : " + e.getMessage());
+    }
+  }
+
+  /**
+   * @return number of fonts given from the cache
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return number of fonts read and parsed
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of fonts in the cache
+   */
+  public int size() {
+    return trueTypeFonts.size();
+  }
+
+  /**
+   * Return the parsed font, read it the first time
+   *
+   * @param fontName    name of the font
+   * @param subFunction caller
+   * @return the font
+   * @throws ConnectorException if the font is not in the font directory, or can't be parsed
+   */
+  private TrueTypeFont getTrueTypeFont(String fontName, PdfSubFunction subFunction) throws ConnectorException {
+    String fileName = fontName.toLowerCase().endsWith(TRUETYPE_EXTENSION) ? fontName : fontName + TRUETYPE_EXTENSION;
+    TrueTypeFont trueTypeFont = trueTypeFonts.get(fileName);
+    if (trueTypeFont != null) {
+      hits.incrementAndGet();
+      return trueTypeFont;
+    }
+    // two jobs may parse the same font in parallel the first time: the first one stored is kept
+    trueTypeFont = readTrueTypeFont(fileName, subFunction);
+    misses.incrementAndGet();
+    TrueTypeFont existing = trueTypeFonts.putIfAbsent(fileName, trueTypeFont);
+    logger.info("{} Font [{}] loaded in the cache: {} fonts, hits {} misses {}",
+        PdfToolbox.getLogSignature(subFunction), fileName, trueTypeFonts.size(), hits.get(), misses.get());
+    return existing == null ? trueTypeFont : existing;
+  }
+
+  private TrueTypeFont readTrueTypeFont(String fileName, PdfSubFunction subFunction) throws ConnectorException {
+    String fontDirectory = PdfConfiguration.getString(PdfConfiguration.FONT_DIRECTORY, null);
+    if (fontDirectory == null)
+      throw new ConnectorException(ERROR_UNKNOWN_FONT,
+          PdfToolbox.getLogSignature(subFunction) + "Font [" + fileName + "] is not a standard font, and no font directory is configured ("
+              + PdfConfiguration.FONT_DIRECTORY + ")");
+
+    // the name comes from the process: it must stay in the font directory
+    Path directory = Paths.get(fontDirectory).toAbsolutePath().normalize();
+    Path fontPath = directory.resolve(fileName).normalize();
+    if (!directory.equals(fontPath.getParent()) || !Files.isRegularFile(fontPath))
+      throw new ConnectorException(ERROR_UNKNOWN_FONT,
+          PdfToolbox.getLogSignature(subFunction) + "Font [" + fileName + "] does not exist in the font directory");
+    try {
+      // parsed from memory: the font does not keep a file open, and can be read by multiple jobs
+      return new TTFParser().parse(new ByteArrayInputStream(Files.readAllBytes(fontPath)));
+    } catch (Exception e) {
+      throw new ConnectorException(ERROR_UNKNOWN_FONT,
+          PdfToolbox.getLogSignature(subFunction) + "Font [" + fileName + "] can't be parsed : " + e.getMessage());
+    }
+  }
+
+  private static class CacheHolder {
+    private static final FontCache INSTANCE = new FontCache();
+  }
+}
@@ -0,0 +1,130 @@
+package io.camunda.connector.pdf.toolbox;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  OrderedParallelLoader                                               */
+/*                                                                      */
+/*  Load a list of items concurrently on a bounded pool, and give them  */
+/*  back in the order of the list: the caller assembles sequentially.   */
+/*  At most <parallelism> items are loaded ahead of the caller.         */
+/* ******************************************************************** */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class OrderedParallelLoader<T> implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(OrderedParallelLoader.class.getName());
+
+  private static final long TERMINATION_TIMEOUT_SECONDS = 30;
+
+  private final PdfSubFunction subFunction;
+  private final int nbItems;
+  private final int parallelism;
+  private final ItemLoader<T> itemLoader;
+  private final Consumer<T> discardItem;
+  private final ExecutorService executorService;
+  private final List<Future<T>> listLoads = new ArrayList<>();
+  // number of items given back to the caller: the caller is then responsible for them
+  private int nbItemsTaken = 0;
+
+  /**
+   * Start the load of the first items
+   *
+   * @param subFunction caller
+   * @param threadName  name of the threads, for the thread dumps
+   * @param nbItems     number of items to load
+   * @param parallelism number of items loaded in parallel
+   * @param itemLoader  load one item
+   * @param discardItem release an item loaded but not taken (the caller failed before): close a document...
+   */
+  public OrderedParallelLoader(PdfSubFunction subFunction,
+                               String threadName,
+                               int nbItems,
+                               int parallelism,
+                               ItemLoader<T> itemLoader,
+                               Consumer<T> discardItem) {
+    this.subFunction = subFunction;
+    this.nbItems = nbItems;
+    this.parallelism = Math.max(1, Math.min(parallelism, nbItems));
+    this.itemLoader = itemLoader;
+    this.discardItem = discardItem;
+    this.executorService = Executors.newFixedThreadPool(this.parallelism, r -> {
+      Thread thread = new Thread(r, threadName);
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int i = 0; i < this.parallelism; i++) {
+      submitLoad(i);
+    }
+  }
+
+  /**
+   * Return the item at the index, waiting for its load. Items must be taken in the order of the list.
+   *
+   * @param index index of the item
+   * @return the item loaded
+   * @throws Exception the exception thrown by the load of this item (a ConnectorException is thrown as it is)
+   */
+  public T take(int index) throws Exception {
+    if (index != nbItemsTaken)
+      throw new IllegalStateException("Items must be taken in order: expected " + nbItemsTaken + " got " + index);
+    // keep the pool busy: load the next item while the caller assembles this one
+    submitLoad(index + parallelism);
+    try {
+      T item = listLoads.get(index).get();
+      nbItemsTaken++;
+      return item;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause)
+        throw cause;
+      throw e;
+    }
+  }
+
+  /**
+   * Stop the loads in progress, and discard all items loaded but not taken by the caller
+   */
+  @Override
+  public void close() {
+    executorService.shutdownNow();
+    try {
+      if (!executorService.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        logger.error("{} Loaders are still running after {} s", PdfToolbox.getLogSignature(subFunction),
+            TERMINATION_TIMEOUT_SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (int i = nbItemsTaken; i < listLoads.size(); i++) {
+      Future<T> load = listLoads.get(i);
+      if (!load.isDone() || load.isCancelled())
+        continue;
+      try {
+        discardItem.accept(load.get());
+      } catch (Exception e) {
+        // don't care: the load failed, or the item can't be released
+      }
+    }
+  }
+
+  private void submitLoad(int index) {
+    if (index >= nbItems)
+      return;
+    listLoads.add(executorService.submit(() -> itemLoader.load(index)));
+  }
+
+  /**
+   * Load one item. Called in a thread of the pool.
+   */
+  public interface ItemLoader<T> {
+    T load(int index) throws Exception;
+  }
+}
@@ -1,12 +1,11 @@
 package io.camunda.connector.pdf.toolbox;
 
+import io.camunda.connector.cherrytemplate.CherryInput;
 import io.camunda.connector.cherrytemplate.RunnerParameter;
-import io.camunda.connector.pdf.PdfFunction;
 import io.camunda.connector.pdf.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Constructor;
 import java.util.*;
 
 public class ParameterToolbox {
@@ -18,25 +17,38 @@ public class ParameterToolbox {
   private ParameterToolbox() {
   }
 
+  /**
+   * Return the list of input parameters. The list is computed once, then the same immutable copy is returned
+   *
+   * @return list of parameters on a list of MAP
+   */
   public static List<Map<String, Object>> getInputParameters() {
-    return getParameters(true);
+    return ParametersHolder.INPUT_PARAMETERS;
   }
 
+  /**
+   * Return the list of output parameters. The list is computed once, then the same immutable copy is returned
+   *
+   * @return list of parameters on a list of MAP
+   */
   public static List<Map<String, Object>> getOutputParameters() {
-    return getParameters(false);
+    return ParametersHolder.OUTPUT_PARAMETERS;
   }
 
 
   /**
-   * Return the list of parameters
+   * Compute the list of parameters. Use getInputParameters() or getOutputParameters() to get the cached value.
+   * Note: the RunnerParameter are shared between sub-functions, and the condition is added on them.
    *
    * @param inputParameters true of false according the type of parameters
-   * @return list of parameters on a list of MAP
+   * @return list of parameters on a list of MAP, immutable
    */
-  private static List<Map<String, Object>> getParameters(boolean inputParameters) {
+  static List<Map<String, Object>> computeParameters(boolean inputParameters) {
 
     List<RunnerParameter> runnerParametersCollectList = new ArrayList<>();
-    logger.info("getParameters input? {}", inputParameters);
+    // name of the parameters already in runnerParametersCollectList
+    Set<String> parametersNameCollected = new HashSet<>();
+    logger.debug("computeParameters input? {}", inputParameters);
 
     // add the "choose the function" parameters
     RunnerParameter chooseFunction = new RunnerParameter(PdfInput.PDFFUNCTION,
@@ -46,38 +58,33 @@ public class ParameterToolbox {
     // add the input only at the INPUT parameters
     if (inputParameters) {
       runnerParametersCollectList.add(chooseFunction);
+      parametersNameCollected.add(chooseFunction.getName());
     }
 
     // We keep a list of parameters per type. Then, we will add a condition according to the type
     Map<String, List<String>> mapParameterSubType = new HashMap<>();
 
     //  now, we collect all functions, and for each function, we collect parameters
-    for (Class<?> classFunction : PdfFunction.allFunctions) {
+    List<PdfSubFunction> listSubFunctions = PdfSubFunctionRegistry.getInstance().getListSubFunctions();
+    for (PdfSubFunction inputSubFunction : listSubFunctions) {
       try {
-        Constructor<?> constructor = classFunction.getConstructor();
-        PdfSubFunction inputSubFunction = (PdfSubFunction) constructor.newInstance();
-
         List<RunnerParameter> subFunctionsParametersList = inputParameters ?
                 inputSubFunction.getInputsParameter() :
                 inputSubFunction.getOutputsParameter();
 
         chooseFunction.addChoice(inputSubFunction.getSubFunctionType(), inputSubFunction.getSubFunctionName());
-        logger.info("FileStorage SubFunctionName[{}] TypeChoice [{}] parameterList.size={}",
+        logger.debug("FileStorage SubFunctionName[{}] TypeChoice [{}] parameterList.size={}",
                 inputSubFunction.getSubFunctionName(), inputSubFunction.getSubFunctionType(),
                 subFunctionsParametersList.size());
 
         for (RunnerParameter parameter : subFunctionsParametersList) {
 
           // Record where the parameter is involved
-          List<String> listSubFunctionForThisParameter = mapParameterSubType.getOrDefault(parameter.getName(), new ArrayList<>());
-          listSubFunctionForThisParameter.add(inputSubFunction.getSubFunctionType());
-          mapParameterSubType.put(parameter.getName(), listSubFunctionForThisParameter);
+          mapParameterSubType.computeIfAbsent(parameter.getName(), k -> new ArrayList<>())
+              .add(inputSubFunction.getSubFunctionType());
 
           // one parameter may be used by multiple functions, and we want to create only one, but play on condition to show it
-          Optional<RunnerParameter> parameterInList = runnerParametersCollectList.stream()
-                  .filter(t -> t.getName().equals(parameter.getName()))
-                  .findFirst();
-          if (parameterInList.isEmpty()) {
+          if (parametersNameCollected.add(parameter.getName())) {
             // We search where to add this parameter. It is at the end of the group with the same priority
             int positionToAdd = 0;
             for (RunnerParameter indexParameter : runnerParametersCollectList) {
@@ -85,13 +92,13 @@ public class ParameterToolbox {
                 positionToAdd++;
             }
             runnerParametersCollectList.add(positionToAdd, parameter);
-            logger.info("  check parameter[{}.{}] : New Add at [{}] newSize[{}] - registered in[{}]",
+            logger.debug("  check parameter[{}.{}] : New Add at [{}] newSize[{}] - registered in[{}]",
                     inputSubFunction.getSubFunctionName(), parameter.getName(), positionToAdd,
                     runnerParametersCollectList.size(), parameter.getAttribute("ret"));
             // Already exist
           } else {
             // Register this function in that parameter
-            logger.info("  check parameter[{}.{}] : Already exist - registered in[{}]",
+            logger.debug("  check parameter[{}.{}] : Already exist - registered in[{}]",
                     inputSubFunction.getSubFunctionName(), parameter.getName(), inputSubFunction.getSubFunctionType());
           }
         }
@@ -115,19 +122,43 @@ public class ParameterToolbox {
       List<String> listFunctionForThisParameter = mapParameterSubType.get(parameter.getName());
 
       if (listFunctionForThisParameter == null || listFunctionForThisParameter.isEmpty()
-              || listFunctionForThisParameter.size() == PdfFunction.allFunctions.size()) {
-        logger.info("parameter [{}] Register in NO or ALL functions", parameter.getName());
+              || listFunctionForThisParameter.size() == listSubFunctions.size()) {
+        logger.debug("parameter [{}] Register in NO or ALL functions", parameter.getName());
       } else {
-        logger.info("parameter [{}] Register in some functions [{}]", parameter.getName(),
+        logger.debug("parameter [{}] Register in some functions [{}]", parameter.getName(),
                 listFunctionForThisParameter);
         parameter.addCondition(chooseFunction.getName(), listFunctionForThisParameter);
       }
     }
     // first, the function selection
-    logger.info(" FileStorageParameter => Map Size={}", runnerParametersCollectList.size());
+    logger.info("PdfParameters input? {} => Map Size={}", inputParameters, runnerParametersCollectList.size());
 
-    return runnerParametersCollectList.stream().map(t -> t.toMap(PdfInput.PDFFUNCTION)).toList();
+    return runnerParametersCollectList.stream()
+        .map(t -> immutableParameterMap(t.toMap(PdfInput.PDFFUNCTION)))
+        .toList();
 
   }
 
+  /**
+   * The map of a parameter is shared between all callers: protect it, and protect the list of choices.
+   * Map.copyOf() can't be used, a parameter map contains null values
+   *
+   * @param parameterMap map produced by the RunnerParameter
+   * @return an unmodifiable map
+   */
+  private static Map<String, Object> immutableParameterMap(Map<String, Object> parameterMap) {
+    Object choiceList = parameterMap.get(CherryInput.PARAMETER_MAP_CHOICE_LIST);
+    if (choiceList instanceof List<?> choiceListMap)
+      parameterMap.put(CherryInput.PARAMETER_MAP_CHOICE_LIST, List.copyOf(choiceListMap));
+    return Collections.unmodifiableMap(parameterMap);
+  }
+
+  /**
+   * Holder: the parameters are computed by the class loader the first time they are accessed, one time
+   */
+  private static class ParametersHolder {
+    private static final List<Map<String, Object>> INPUT_PARAMETERS = computeParameters(true);
+    private static final List<Map<String, Object>> OUTPUT_PARAMETERS = computeParameters(false);
+  }
+
 }
@@ -0,0 +1,78 @@
+package io.camunda.connector.pdf.toolbox;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  PdfConfiguration                                                    */
+/*                                                                      */
+/*  Configuration of the connector process, shared by all jobs.         */
+/*  A value is read from the system property (pdf.font.directory),     */
+/*  then from the environment variable (PDF_FONT_DIRECTORY).            */
+/* ******************************************************************** */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PdfConfiguration {
+  /**
+   * Directory containing the TrueType fonts (.ttf) usable by the functions
+   */
+  public static final String FONT_DIRECTORY = "pdf.font.directory";
+
+  private static final Logger logger = LoggerFactory.getLogger(PdfConfiguration.class.getName());
+
+  /**
+   * Toolbox, only static method
+   */
+  private PdfConfiguration() {
+  }
+
+  /**
+   * Return a configuration value
+   *
+   * @param propertyName name of the system property. The environment variable is the name in uppercase, '.' replaced
+   *                     by '_'
+   * @param defaultValue value if the property is not set
+   * @return the value
+   */
+  public static String getString(String propertyName, String defaultValue) {
+    String value = System.getProperty(propertyName);
+    if (value == null || value.trim().isEmpty())
+      value = System.getenv(getEnvironmentName(propertyName));
+    return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+  }
+
+  /**
+   * Return a configuration value as a long
+   *
+   * @param propertyName name of the system property
+   * @param defaultValue value if the property is not set, or is not a number
+   * @return the value
+   */
+  public static long getLong(String propertyName, long defaultValue) {
+    String value = getString(propertyName, null);
+    if (value == null)
+      return defaultValue;
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      logger.error("Configuration [{}] must be a number, received [{}]: use {}", propertyName, value, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Return a configuration value as a boolean
+   *
+   * @param propertyName name of the system property
+   * @param defaultValue value if the property is not set
+   * @return the value
+   */
+  public static boolean getBoolean(String propertyName, boolean defaultValue) {
+    String value = getString(propertyName, null);
+    return value == null ? defaultValue : Boolean.parseBoolean(value);
+  }
+
+  private static String getEnvironmentName(String propertyName) {
+    return propertyName.toUpperCase().replace('.', '_').replace('-', '_');
+  }
+}
@@ -0,0 +1,199 @@
+package io.camunda.connector.pdf.toolbox;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  PdfMetrics                                                          */
+/*                                                                      */
+/*  Micrometer metrics of the connector, published in the global        */
+/*  registry: Spring Boot adds its registries (Prometheus) to it.       */
+/*  Meters are tagged by the sub-function type and the stage.           */
+/* ******************************************************************** */
+
+import io.camunda.connector.pdf.sharedfunctions.ResultCache;
+import io.camunda.connector.pdf.sharedfunctions.SourceDocumentCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+public class PdfMetrics {
+  public static final String METRIC_EXECUTION = "pdf.function.execution";
+  public static final String METRIC_STAGE = "pdf.function.stage";
+  public static final String METRIC_PAGES = "pdf.function.pages";
+  public static final String METRIC_BYTES_IN = "pdf.function.bytes.in";
+  public static final String METRIC_BYTES_OUT = "pdf.function.bytes.out";
+  public static final String METRIC_ERRORS = "pdf.function.errors";
+  public static final String METRIC_CACHE_REQUESTS = "pdf.cache.requests";
+  public static final String METRIC_CACHE_EVICTIONS = "pdf.cache.evictions";
+  public static final String METRIC_CACHE_BYTES = "pdf.cache.bytes";
+
+  public static final String TAG_FUNCTION = "function";
+  public static final String TAG_STAGE = "stage";
+  public static final String TAG_OUTCOME = "outcome";
+  public static final String TAG_CODE = "code";
+
+  public static final String OUTCOME_SUCCESS = "success";
+  public static final String OUTCOME_CACHED = "cached";
+  public static final String OUTCOME_ERROR = "error";
+
+  /**
+   * LOAD: fetch the sources from the storage
+   * PARSE: parse the sources (PDF, images)
+   * PROCESS: the operation itself (extract, merge, render...)
+   * SERIALIZE: write the result (PDF, image encoding)
+   * STORE: save the result in the storage
+   */
+  public enum Stage {LOAD, PARSE, PROCESS, SERIALIZE, STORE}
+
+  private static final MeterRegistry registry = Metrics.globalRegistry;
+
+  static {
+    registerCacheMetrics();
+  }
+
+  /**
+   * Toolbox, only static method
+   */
+  private PdfMetrics() {
+  }
+
+  /**
+   * Record one execution of the connector
+   *
+   * @param functionType type of the sub-function
+   * @param outcome      OUTCOME_SUCCESS, OUTCOME_CACHED, OUTCOME_ERROR
+   * @param durationMs   duration of the execution
+   */
+  public static void recordExecution(String functionType, String outcome, long durationMs) {
+    Timer.builder(METRIC_EXECUTION)
+        .description("Execution of a PDF function")
+        .tag(TAG_FUNCTION, functionType)
+        .tag(TAG_OUTCOME, outcome)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(durationMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Record the duration of a stage
+   *
+   * @param subFunction caller
+   * @param stage       stage
+   * @param durationMs  duration of the stage
+   */
+  public static void recordStage(PdfSubFunction subFunction, Stage stage, long durationMs) {
+    Timer.builder(METRIC_STAGE)
+        .description("Stage of a PDF function")
+        .tag(TAG_FUNCTION, subFunction.getSubFunctionType())
+        .tag(TAG_STAGE, stage.toString().toLowerCase())
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(durationMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Count the pages processed
+   *
+   * @param subFunction caller
+   * @param nbPages     number of pages
+   */
+  public static void countPages(PdfSubFunction subFunction, long nbPages) {
+    Counter.builder(METRIC_PAGES)
+        .description("Pages processed")
+        .tag(TAG_FUNCTION, subFunction.getSubFunctionType())
+        .register(registry)
+        .increment(nbPages);
+  }
+
+  /**
+   * Record the size of a document read from the storage
+   *
+   * @param subFunction caller
+   * @param nbBytes     size of the document
+   */
+  public static void recordBytesIn(PdfSubFunction subFunction, long nbBytes) {
+    DistributionSummary.builder(METRIC_BYTES_IN)
+        .description("Size of the documents read")
+        .baseUnit("bytes")
+        .tag(TAG_FUNCTION, subFunction.getSubFunctionType())
+        .register(registry)
+        .record(nbBytes);
+  }
+
+  /**
+   * Record the size of a document saved in the storage
+   *
+   * @param subFunction caller
+   * @param nbBytes     size of the document
+   */
+  public static void recordBytesOut(PdfSubFunction subFunction, long nbBytes) {
+    DistributionSummary.builder(METRIC_BYTES_OUT)
+        .description("Size of the documents saved")
+        .baseUnit("bytes")
+        .tag(TAG_FUNCTION, subFunction.getSubFunctionType())
+        .register(registry)
+        .record(nbBytes);
+  }
+
+  /**
+   * Count a BPMN error thrown by the connector
+   *
+   * @param functionType type of the sub-function
+   * @param errorCode    code of the BPMN error
+   */
+  public static void countError(String functionType, String errorCode) {
+    Counter.builder(METRIC_ERRORS)
+        .description("BPMN errors thrown")
+        .tag(TAG_FUNCTION, functionType)
+        .tag(TAG_CODE, errorCode == null ? "none" : errorCode)
+        .register(registry)
+        .increment();
+  }
+
+  /**
+   * The caches count their requests: the meters read the counters when they are scraped
+   */
+  private static void registerCacheMetrics() {
+    SourceDocumentCache sourceCache = SourceDocumentCache.getInstance();
+    registerCacheRequests("source", "hit", sourceCache, SourceDocumentCache::getHits);
+    registerCacheRequests("source", "disk-hit", sourceCache, SourceDocumentCache::getDiskHits);
+    registerCacheRequests("source", "miss", sourceCache, SourceDocumentCache::getMisses);
+    FunctionCounter.builder(METRIC_CACHE_EVICTIONS, sourceCache, SourceDocumentCache::getEvictions)
+        .tag("cache", "source")
+        .register(registry);
+    Gauge.builder(METRIC_CACHE_BYTES, sourceCache, SourceDocumentCache::getMemoryBytes)
+        .baseUnit("bytes")
+        .tag("cache", "source")
+        .tag("tier", "memory")
+        .register(registry);
+    Gauge.builder(METRIC_CACHE_BYTES, sourceCache, SourceDocumentCache::getDiskBytes)
+        .baseUnit("bytes")
+        .tag("cache", "source")
+        .tag("tier", "disk")
+        .register(registry);
+
+    ResultCache resultCache = ResultCache.getInstance();
+    registerCacheRequests("result", "hit", resultCache, ResultCache::getHits);
+    registerCacheRequests("result", "miss", resultCache, ResultCache::getMisses);
+
+    FontCache fontCache = FontCache.getInstance();
+    registerCacheRequests("font", "hit", fontCache, FontCache::getHits);
+    registerCacheRequests("font", "miss", fontCache, FontCache::getMisses);
+  }
+
+  private static <T> void registerCacheRequests(String cache,
+                                                String result,
+                                                T cacheObject,
+                                                ToDoubleFunction<T> counter) {
+    FunctionCounter.builder(METRIC_CACHE_REQUESTS, cacheObject, counter)
+        .tag("cache", cache)
+        .tag("result", result)
+        .register(registry);
+  }
+}
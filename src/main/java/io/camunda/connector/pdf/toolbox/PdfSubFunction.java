@@ -9,6 +9,12 @@ import io.camunda.connector.pdf.PdfOutput;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A sub-function is created one time by the PdfSubFunctionRegistry, and the same instance executes all jobs in
+ * parallel: an implementation must not keep any state between two executions.
+ * To add a sub-function without modifying the connector, declare it in
+ * META-INF/services/io.camunda.connector.pdf.toolbox.PdfSubFunction
+ */
 public interface PdfSubFunction {
   PdfOutput executeSubFunction(PdfInput pdfInput, OutboundConnectorContext context) throws ConnectorException;
   String getSubFunctionName();
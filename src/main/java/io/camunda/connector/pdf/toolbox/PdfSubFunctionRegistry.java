@@ -0,0 +1,128 @@
+package io.camunda.connector.pdf.toolbox;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  PdfSubFunctionRegistry                                              */
+/*                                                                      */
+/*  Registry of all sub-functions, built once. Each sub-function is     */
+/*  instantiated one time and shared between all executions.            */
+/* ******************************************************************** */
+
+import io.camunda.connector.pdf.PdfFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class PdfSubFunctionRegistry {
+  private static final Logger logger = LoggerFactory.getLogger(PdfSubFunctionRegistry.class.getName());
+
+  // key is the sub-function type (getSubFunctionType()), in the declaration order
+  private final Map<String, PdfSubFunction> subFunctionsByType;
+  private final Map<String, String> allBpmnErrors;
+  private final String description;
+
+  private PdfSubFunctionRegistry() {
+    Map<String, PdfSubFunction> collectSubFunctions = new LinkedHashMap<>();
+
+    // first, the sub-functions embedded in the connector
+    for (Class<?> classFunction : PdfFunction.allFunctions) {
+      try {
+        Constructor<?> constructor = classFunction.getConstructor();
+        register(collectSubFunctions, (PdfSubFunction) constructor.newInstance());
+      } catch (Exception e) {
+        logger.error("Can't call a constructor on {} : {}", classFunction.getName(), e.toString());
+      }
+    }
+
+    // second, additional sub-functions declared in a META-INF/services/io.camunda.connector.pdf.toolbox.PdfSubFunction
+    try {
+      for (PdfSubFunction subFunction : ServiceLoader.load(PdfSubFunction.class)) {
+        register(collectSubFunctions, subFunction);
+      }
+    } catch (ServiceConfigurationError e) {
+      logger.error("Can't load additional sub-functions via ServiceLoader : {}", e.toString());
+    }
+    subFunctionsByType = Collections.unmodifiableMap(collectSubFunctions);
+
+    Map<String, String> collectBpmnErrors = new HashMap<>();
+    collectBpmnErrors.put(PdfError.ERROR_UNKNOWN_FUNCTION, PdfError.ERROR_UNKNOWN_FUNCTION_EXPLANATION);
+    collectBpmnErrors.put(PdfError.ERROR_BAD_INPUTPARAMETER, PdfError.ERROR_BAD_INPUTPARAMETER_EXPLANATION);
+    for (PdfSubFunction subFunction : subFunctionsByType.values()) {
+      collectBpmnErrors.putAll(subFunction.getBpmnErrors());
+    }
+    allBpmnErrors = Collections.unmodifiableMap(collectBpmnErrors);
+
+    description = "Different PDF functions available: " + subFunctionsByType.values()
+        .stream()
+        .map(PdfSubFunction::getSubFunctionDescription)
+        .collect(Collectors.joining(","));
+
+    logger.info("PdfSubFunctionRegistry: {} sub-functions registered {}", subFunctionsByType.size(),
+        subFunctionsByType.keySet());
+  }
+
+  /**
+   * Return the registry. It is built at the first call.
+   *
+   * @return the registry
+   */
+  public static PdfSubFunctionRegistry getInstance() {
+    return RegistryHolder.INSTANCE;
+  }
+
+  /**
+   * Register a sub-function. The first sub-function registered for a type wins.
+   *
+   * @param collectSubFunctions map to complete
+   * @param subFunction         sub-function to register
+   */
+  private static void register(Map<String, PdfSubFunction> collectSubFunctions, PdfSubFunction subFunction) {
+    PdfSubFunction existing = collectSubFunctions.putIfAbsent(subFunction.getSubFunctionType(), subFunction);
+    if (existing != null && existing.getClass() != subFunction.getClass()) {
+      logger.error("SubFunction type [{}] declared by {} is already registered by {}: ignore it",
+          subFunction.getSubFunctionType(), subFunction.getClass().getName(), existing.getClass().getName());
+    }
+  }
+
+  /**
+   * Return the sub-function for a type
+   *
+   * @param subFunctionType type of the sub-function (getSubFunctionType())
+   * @return the sub-function, null if this type is unknown
+   */
+  public PdfSubFunction getSubFunction(String subFunctionType) {
+    return subFunctionType == null ? null : subFunctionsByType.get(subFunctionType);
+  }
+
+  /**
+   * Return the list of sub-functions, in the declaration order
+   *
+   * @return an immutable list
+   */
+  public List<PdfSubFunction> getListSubFunctions() {
+    return List.copyOf(subFunctionsByType.values());
+  }
+
+  /**
+   * Return all BPMN Errors the connector may throw, including the one from each sub-function
+   *
+   * @return an immutable map (Code, Explanation)
+   */
+  public Map<String, String> getAllBpmnErrors() {
+    return allBpmnErrors;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Holder: the registry is built by the class loader the first time it is accessed, one time
+   */
+  private static class RegistryHolder {
+    private static final PdfSubFunctionRegistry INSTANCE = new PdfSubFunctionRegistry();
+  }
+}
@@ -3,12 +3,8 @@ package io.camunda.connector.pdf.toolbox;
 import io.camunda.filestorage.FileVariable;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.graphics.blend.BlendMode;
-import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
-import org.apache.pdfbox.util.Matrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,7 +20,8 @@ public class PdfToolbox {
   private static final Logger logger = LoggerFactory.getLogger(PdfToolbox.class.getName());
 
   /**
-   * Add a text in background on a page
+   * Add a text in background on a page. To watermark all pages of a document, use one WatermarkStamp: the watermark is
+   * then built one time and shared by the pages.
    *
    * @param doc  pdfDocument
    * @param page page to add the text
@@ -33,65 +30,7 @@ public class PdfToolbox {
    */
   public static void addWatermarkText(PDDocument doc, PDPage page, WriterOption writerOption, String text)
       throws IOException {
-    PDPageContentStream contentStream = new PDPageContentStream(doc, page, PDPageContentStream.AppendMode.APPEND, true,
-        true);
-
-    /*
-     * (0,0) is as the bottom left (classical
-     */
-    float width = page.getMediaBox().getWidth();
-    float height = page.getMediaBox().getHeight();
-    float stringWidth = writerOption.font.getStringWidth(text) / 1000 * writerOption.fontHeight;
-
-    float x = (width / 2) - (stringWidth / 2);
-
-    float y = switch (writerOption.textPosition) {
-      case TOP -> height - 25;
-      case CENTER -> height / 2;
-      case BOTTOM -> 5;
-    };
-
-    contentStream.setFont(writerOption.font, writerOption.fontHeight);
-
-    PDExtendedGraphicsState gs = new PDExtendedGraphicsState();
-    gs.setNonStrokingAlphaConstant(2f);
-    gs.setStrokingAlphaConstant(0.2f);
-    gs.setBlendMode(BlendMode.MULTIPLY);
-    gs.setLineWidth(3f);
-    contentStream.setGraphicsStateParameters(gs);
-
-    contentStream.setNonStrokingColor(writerOption.color);
-    contentStream.setStrokingColor(writerOption.color);
-
-    contentStream.beginText();
-
-    if (writerOption.degree != 0 && writerOption.textPosition == TEXT_POSITION.CENTER) {
-      /*
-       * Center of the page is (width/2, height / 2)
-       * If we start the at this position, then the text will not be center.
-       * So we have to move back stringWidth pixel. Transform that in x,y according the degree
-       * x =>
-       *    - start at the middle of the page (width/2)
-       *    - minus vector, projection on the X axis for this vector
-       *     Vector is
-       *      calculated the half length of the string (stringWidth/2)
-       *     Projection on the X axis
-       *      use the cosinus( rotation )
-       *
-       */
-      int xText = (int) (width / 2.0 - Math.cos(Math.toRadians(writerOption.degree)) * stringWidth / 2.0);
-      int yText = (int) (height / 2.0 - Math.sin(Math.toRadians(writerOption.degree)) * stringWidth / 2.0);
-
-      Matrix matrix = Matrix.getRotateInstance(Math.toRadians(writerOption.degree), xText, yText);
-
-      contentStream.setTextMatrix(matrix);
-
-    } else {
-      contentStream.newLineAtOffset(x, y);
-    }
-    contentStream.showText(text);
-    contentStream.endText();
-    contentStream.close();
+    new WatermarkStamp(doc, writerOption, text).stamp(page);
   }
 
   private static void savePdfInFile(FileVariable sourceFileVariable) {
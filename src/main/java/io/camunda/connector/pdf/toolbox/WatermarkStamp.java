@@ -0,0 +1,188 @@
+package io.camunda.connector.pdf.toolbox;
+
+/* ******************************************************************** */
+/*                                                                      */
+/*  WatermarkStamp                                                      */
+/*                                                                      */
+/*  The watermark is drawn one time in a Form XObject, then each page   */
+/*  references it with one Do operator. The graphics state and the     */
+/*  text width are calculated one time for the document. One form is    */
+/*  built per MediaBox size.                                            */
+/*  Objects changed are flagged, so the document can be saved with an   */
+/*  incremental update.                                                 */
+/* ******************************************************************** */
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.blend.BlendMode;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+import org.apache.pdfbox.util.Matrix;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class WatermarkStamp {
+
+  private final PDDocument document;
+  private final PdfToolbox.WriterOption writerOption;
+  private final String text;
+  private final float stringWidth;
+  private final PDExtendedGraphicsState graphicsState;
+  // one form per MediaBox size, key is "<width>x<height>"
+  private final Map<String, PDFormXObject> formsBySize = new HashMap<>();
+
+  /**
+   * Prepare the watermark for a document
+   *
+   * @param document     document to watermark
+   * @param writerOption font, color, position, rotation
+   * @param text         text of the watermark
+   * @throws IOException if the font can't measure the text
+   */
+  public WatermarkStamp(PDDocument document, PdfToolbox.WriterOption writerOption, String text) throws IOException {
+    this.document = document;
+    this.writerOption = writerOption;
+    this.text = text;
+    this.stringWidth = writerOption.font.getStringWidth(text) / 1000 * writerOption.fontHeight;
+
+    graphicsState = new PDExtendedGraphicsState();
+    graphicsState.setNonStrokingAlphaConstant(2f);
+    graphicsState.setStrokingAlphaConstant(0.2f);
+    graphicsState.setBlendMode(BlendMode.MULTIPLY);
+    graphicsState.setLineWidth(3f);
+
+    // an incremental save writes only the objects flagged, and the path to them from the catalog
+    document.getDocumentCatalog().getCOSObject().setNeedToBeUpdated(true);
+  }
+
+  /**
+   * Add the watermark on the page, in background
+   *
+   * @param page page to stamp
+   * @throws IOException can't add the watermark
+   */
+  public void stamp(PDPage page) throws IOException {
+    PDRectangle mediaBox = page.getMediaBox();
+    String sizeKey = mediaBox.getWidth() + "x" + mediaBox.getHeight();
+    PDFormXObject form = formsBySize.get(sizeKey);
+    if (form == null) {
+      form = createForm(mediaBox.getWidth(), mediaBox.getHeight());
+      formsBySize.put(sizeKey, form);
+    }
+
+    try (PDPageContentStream contentStream = new PDPageContentStream(document, page,
+        PDPageContentStream.AppendMode.APPEND, true, true)) {
+      // the form is drawn in (0,0,width,height): move it to the MediaBox origin
+      if (mediaBox.getLowerLeftX() != 0 || mediaBox.getLowerLeftY() != 0)
+        contentStream.transform(Matrix.getTranslateInstance(mediaBox.getLowerLeftX(), mediaBox.getLowerLeftY()));
+      contentStream.drawForm(form);
+    }
+    flagPageUpdated(page);
+  }
+
+  /**
+   * @return number of forms created, one per MediaBox size
+   */
+  public int getNumberOfForms() {
+    return formsBySize.size();
+  }
+
+  /**
+   * Flag the objects the stamp changed on the page: the page, its contents, its resources, and the page tree up to the
+   * root
+   *
+   * @param page page stamped
+   */
+  private void flagPageUpdated(PDPage page) {
+    COSDictionary pageDictionary = page.getCOSObject();
+    pageDictionary.setNeedToBeUpdated(true);
+    if (pageDictionary.getDictionaryObject(COSName.CONTENTS) instanceof COSArray contents)
+      contents.setNeedToBeUpdated(true);
+    PDResources resources = page.getResources();
+    if (resources != null) {
+      resources.getCOSObject().setNeedToBeUpdated(true);
+      if (resources.getCOSObject().getDictionaryObject(COSName.XOBJECT) instanceof COSDictionary xObjects)
+        xObjects.setNeedToBeUpdated(true);
+    }
+    COSBase parent = pageDictionary.getDictionaryObject(COSName.PARENT);
+    while (parent instanceof COSDictionary parentDictionary && !parentDictionary.isNeedToBeUpdated()) {
+      parentDictionary.setNeedToBeUpdated(true);
+      parent = parentDictionary.getDictionaryObject(COSName.PARENT);
+    }
+  }
+
+  /**
+   * Draw the watermark in a form
+   *
+   * @param width  width of the page
+   * @param height height of the page
+   * @return the form
+   * @throws IOException can't draw the watermark
+   */
+  private PDFormXObject createForm(float width, float height) throws IOException {
+    PDFormXObject form = new PDFormXObject(document);
+    form.setResources(new PDResources());
+    form.setBBox(new PDRectangle(width, height));
+    form.getCOSObject().setNeedToBeUpdated(true);
+    form.getResources().getCOSObject().setNeedToBeUpdated(true);
+
+    // PDPageContentStream writes in a form through an appearance stream, which shares the same COSStream
+    try (PDPageContentStream contentStream = new PDPageContentStream(document,
+        new PDAppearanceStream(form.getCOSObject()), form.getStream().createOutputStream(COSName.FLATE_DECODE))) {
+
+      /*
+       * (0,0) is as the bottom left (classical
+       */
+      float x = (width / 2) - (stringWidth / 2);
+
+      float y = switch (writerOption.textPosition) {
+        case TOP -> height - 25;
+        case CENTER -> height / 2;
+        case BOTTOM -> 5;
+      };
+
+      contentStream.setFont(writerOption.font, writerOption.fontHeight);
+      contentStream.setGraphicsStateParameters(graphicsState);
+
+      contentStream.setNonStrokingColor(writerOption.color);
+      contentStream.setStrokingColor(writerOption.color);
+
+      contentStream.beginText();
+
+      if (writerOption.degree != 0 && writerOption.textPosition == PdfToolbox.TEXT_POSITION.CENTER) {
+        /*
+         * Center of the page is (width/2, height / 2)
+         * If we start the at this position, then the text will not be center.
+         * So we have to move back stringWidth pixel. Transform that in x,y according the degree
+         * x =>
+         *    - start at the middle of the page (width/2)
+         *    - minus vector, projection on the X axis for this vector
+         *     Vector is
+         *      calculated the half length of the string (stringWidth/2)
+         *     Projection on the X axis
+         *      use the cosinus( rotation )
+         *
+         */
+        int xText = (int) (width / 2.0 - Math.cos(Math.toRadians(writerOption.degree)) * stringWidth / 2.0);
+        int yText = (int) (height / 2.0 - Math.sin(Math.toRadians(writerOption.degree)) * stringWidth / 2.0);
+
+        contentStream.setTextMatrix(Matrix.getRotateInstance(Math.toRadians(writerOption.degree), xText, yText));
+      } else {
+        contentStream.newLineAtOffset(x, y);
+      }
+      contentStream.showText(text);
+      contentStream.endText();
+    }
+    return form;
+  }
+}
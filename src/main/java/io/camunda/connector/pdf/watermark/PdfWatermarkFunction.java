@@ -9,12 +9,16 @@ import io.camunda.connector.pdf.sharedfunctions.LoadDocument;
 import io.camunda.connector.pdf.sharedfunctions.LoadPdfDocument;
 import io.camunda.connector.pdf.sharedfunctions.RetrieveStorageDefinition;
 import io.camunda.connector.pdf.sharedfunctions.SavePdfDocument;
+import io.camunda.connector.pdf.toolbox.FontCache;
+import io.camunda.connector.pdf.toolbox.PdfMetrics;
 import io.camunda.connector.pdf.toolbox.PdfSubFunction;
 import io.camunda.connector.pdf.toolbox.PdfToolbox;
+import io.camunda.connector.pdf.toolbox.WatermarkStamp;
 import io.camunda.filestorage.FileRepoFactory;
 import io.camunda.filestorage.FileVariable;
 import io.camunda.filestorage.storage.StorageDefinition;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +40,7 @@ public class PdfWatermarkFunction implements PdfSubFunction {
     listBpmnErrors.putAll(SavePdfDocument.getBpmnErrors());
     listBpmnErrors.put(PdfToolbox.ERROR_DURING_OPERATION, PdfToolbox.ERROR_DURING_OPERATION_LABEL);
     listBpmnErrors.put(ERROR_INVALID_COLOR, "Invalid color");
+    listBpmnErrors.put(FontCache.ERROR_UNKNOWN_FONT, FontCache.ERROR_UNKNOWN_FONT_LABEL);
   }
 
   Logger logger = LoggerFactory.getLogger(PdfWatermarkFunction.class.getName());
@@ -68,23 +73,39 @@ public class PdfWatermarkFunction implements PdfSubFunction {
 
       PdfToolbox.WriterOption writerOption = getWriterOption(pdfInput);
 
-      logger.info("{} Start Watermark [{}] Options{}", PdfToolbox.getLogSignature(this), watermark,
-          writerOption.getSynthesis());
+      logger.info("{} Start Watermark [{}] Font[{}] Options{}", PdfToolbox.getLogSignature(this), watermark,
+          pdfInput.getWatermarkFont(), writerOption.getSynthesis());
 
       // load the document now
-      sourceDocument = LoadPdfDocument.loadPdfDocument(docSource, this);
-
-      // add the watermark
-      for (int i = 0; i < sourceDocument.getNumberOfPages(); i++) {
-        PdfToolbox.addWatermarkText(sourceDocument, sourceDocument.getPage(i), writerOption, watermark);
+      sourceDocument = LoadPdfDocument.loadPdfDocument(docSource,
+          LoadPdfDocument.getMemoryMode(pdfInput.getLoadMemoryMode()), this);
+
+      // the font is parsed one time per JVM; the document embeds only the glyphs used, except with an incremental
+      // save: the subset is built by a complete save only
+      boolean incrementalSave = Boolean.TRUE.equals(pdfInput.getSaveIncremental());
+      writerOption.setFont(
+          FontCache.getInstance().getFont(sourceDocument, pdfInput.getWatermarkFont(), !incrementalSave, this));
+
+      // add the watermark: it is built one time, then referenced by each page
+      long beginWatermark = System.currentTimeMillis();
+      WatermarkStamp watermarkStamp = new WatermarkStamp(sourceDocument, writerOption, watermark);
+      for (PDPage page : sourceDocument.getPages()) {
+        watermarkStamp.stamp(page);
       }
+      logger.info("{} Watermark {} pages with {} form(s) in {} ms", PdfToolbox.getLogSignature(this),
+          sourceDocument.getNumberOfPages(), watermarkStamp.getNumberOfForms(),
+          System.currentTimeMillis() - beginWatermark);
+      PdfMetrics.recordStage(this, PdfMetrics.Stage.PROCESS, System.currentTimeMillis() - beginWatermark);
+      PdfMetrics.countPages(this, sourceDocument.getNumberOfPages());
 
       // produce the result, and save it in the pdfOutput
       // Exception PdfToolbox.ERROR_CREATE_FILEVARIABLE, PdfToolbox.ERROR_SAVE_ERROR
+      // the watermark only appends objects: an incremental save writes only them after the original bytes
       PdfOutput pdfOutput = SavePdfDocument.savePdfFile(new PdfOutput(), sourceDocument, destinationFileName,
-          destinationStorageDefinition, fileRepoFactory, this,outboundConnectorContext);
-      logger.info("{} finish Watermark [{}] document[{}] to [{}] ", PdfToolbox.getLogSignature(this), watermark,
-          pdfInput.getSourceFile(), pdfInput.getDestinationFileName());
+          destinationStorageDefinition, fileRepoFactory, this, outboundConnectorContext, incrementalSave);
+      logger.info("{} finish Watermark [{}] document[{}] to [{}] fontCache hits {} misses {}",
+          PdfToolbox.getLogSignature(this), watermark, pdfInput.getSourceFile(), pdfInput.getDestinationFileName(),
+          FontCache.getInstance().getHits(), FontCache.getInstance().getMisses());
       return pdfOutput;
     } catch (ConnectorException ce) {
       // already logged
@@ -231,6 +252,19 @@ public class PdfWatermarkFunction implements PdfSubFunction {
                     RunnerParameter.Level.OPTIONAL, // level
                     "Font height (30 is small)"),
 
+            new RunnerParameter(PdfInput.WATERMARK_FONT, // name
+                    "Font", // label
+                    String.class, // class
+                    RunnerParameter.Level.OPTIONAL, // level
+                    "Standard font (Helvetica-Bold, Times-Roman, Courier...) or name of a TrueType font in the font directory of the connector (default is Helvetica-Bold)"),
+
+            new RunnerParameter(PdfInput.SAVE_INCREMENTAL, // name
+                    "Incremental save", // label
+                    Boolean.class, // class
+                    RunnerParameter.Level.OPTIONAL, // level
+                    "Write only the watermark after the original document, instead of rewriting the complete document. Faster for large documents"),
+
+            PdfInput.pdfParameterLoadMemoryMode,
             PdfInput.pdfParameterDestinationFileName,
             PdfInput.pdfParameterDestinationJsonStorageDefinition,
             PdfInput.pdfParameterDestinationStorageDefinition,
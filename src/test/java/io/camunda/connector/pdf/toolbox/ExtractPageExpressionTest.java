@@ -0,0 +1,114 @@
+package io.camunda.connector.pdf.toolbox;
+
+import io.camunda.connector.api.error.ConnectorException;
+import io.camunda.connector.pdf.extractpages.PdfExtractPagesFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Grammar of the extract expression, compiled for a document of 10 pages unless the test says otherwise.
+ * The result is given in page numbers (start at 1), in the order of the expression.
+ */
+class ExtractPageExpressionTest {
+
+  private static final PdfSubFunction SUB_FUNCTION = new PdfExtractPagesFunction();
+
+  private static List<Integer> selectedPages(String expression, int numberOfPages) {
+    return new ExtractPageExpression(expression, numberOfPages, SUB_FUNCTION).getSelectedPageIndexes()
+        .stream()
+        .map(pageIndex -> pageIndex + 1)
+        .toList();
+  }
+
+  private static List<Integer> selectedPages(String expression) {
+    return selectedPages(expression, 10);
+  }
+
+  @Test
+  void pagesAndRanges() {
+    assertThat(selectedPages("5")).containsExactly(5);
+    assertThat(selectedPages("3-4, 8-10")).containsExactly(3, 4, 8, 9, 10);
+    assertThat(selectedPages("1-n")).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    assertThat(selectedPages("N")).containsExactly(10);
+  }
+
+  @Test
+  void relativeFromEnd() {
+    assertThat(selectedPages("r1")).containsExactly(10);
+    assertThat(selectedPages("r3-n")).containsExactly(8, 9, 10);
+    assertThat(selectedPages("2-r8")).containsExactly(2, 3);
+    // pages before page 1 are ignored
+    assertThat(selectedPages("r20-2")).containsExactly(1, 2);
+  }
+
+  @Test
+  void parity() {
+    assertThat(selectedPages("1-n:odd")).containsExactly(1, 3, 5, 7, 9);
+    assertThat(selectedPages("1-n:even")).containsExactly(2, 4, 6, 8, 10);
+    assertThat(selectedPages("3-7:EVEN")).containsExactly(4, 6);
+  }
+
+  @Test
+  void step() {
+    assertThat(selectedPages("1-n/3")).containsExactly(1, 4, 7, 10);
+    assertThat(selectedPages("1-n:even/3")).containsExactly(4, 10);
+    // the step starts at the first page, even when it is before page 1
+    assertThat(selectedPages("r12-n/4")).containsExactly(3, 7);
+  }
+
+  @Test
+  void reverseRanges() {
+    assertThat(selectedPages("8-3")).containsExactly(8, 7, 6, 5, 4, 3);
+    assertThat(selectedPages("n-1")).containsExactly(10, 9, 8, 7, 6, 5, 4, 3, 2, 1);
+    assertThat(selectedPages("n-1/4")).containsExactly(10, 6, 2);
+    assertThat(selectedPages("n-1:odd")).containsExactly(9, 7, 5, 3, 1);
+    assertThat(selectedPages("3-r20")).containsExactly(3, 2, 1);
+  }
+
+  @Test
+  void orderOfTheExpression() {
+    assertThat(selectedPages("5,2")).containsExactly(5, 2);
+    assertThat(selectedPages("8-n, 1-2")).containsExactly(8, 9, 10, 1, 2);
+  }
+
+  @Test
+  void pageSelectedTwiceKeptAtItsFirstPosition() {
+    assertThat(selectedPages("4-6, 1-n")).containsExactly(4, 5, 6, 1, 2, 3, 7, 8, 9, 10);
+    assertThat(selectedPages("2, 2, 2")).containsExactly(2);
+    ExtractPageExpression expression = new ExtractPageExpression("1-3, 2-4", 10, SUB_FUNCTION);
+    assertThat(expression.getNumberOfSelectedPages()).isEqualTo(4);
+  }
+
+  @Test
+  void rangeStartingAfterTheEndSelectsNothing() {
+    for (String expression : List.of("10-n", "10-r1", "10-7", "10-12", "8-3", "12")) {
+      assertThat(selectedPages(expression, 5)).as(expression).isEmpty();
+    }
+    // the pages after the end are ignored
+    assertThat(selectedPages("4-12", 5)).containsExactly(4, 5);
+  }
+
+  @Test
+  void isPageInRange() {
+    ExtractPageExpression expression = new ExtractPageExpression("n-8, 2", 10, SUB_FUNCTION);
+    assertThat(expression.isPageInRange(2)).isTrue();
+    assertThat(expression.isPageInRange(9)).isTrue();
+    assertThat(expression.isPageInRange(3)).isFalse();
+    assertThat(expression.isPageInRange(0)).isFalse();
+    assertThat(expression.isPageInRange(11)).isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", " ", "0", "0-3", "r0", "r0-n", "a-3", "1-", "-3", "1-3:all", "1-n/0", "1-n/", ":odd",
+      "1--3", "99999999999", "1,,2"})
+  void invalidClauses(String expression) {
+    assertThatThrownBy(() -> new ExtractPageExpression(expression, 10, SUB_FUNCTION)).isInstanceOf(
+        ConnectorException.class);
+  }
+}
@@ -0,0 +1,55 @@
+package io.camunda.connector.pdf.toolbox;
+
+import io.camunda.connector.pdf.PdfInput;
+import io.camunda.connector.pdf.PdfOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the parameter model: the cost to build it at each call (the previous behavior,
+ * ParameterToolbox.computeParameters) against the cost to get the cached model (PdfInput.getInputParameters /
+ * PdfOutput.getOutputParameters).
+ * In the package of ParameterToolbox, because computeParameters is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+public class ParameterToolboxBenchmark {
+
+  private final PdfInput pdfInput = new PdfInput();
+  private final PdfOutput pdfOutput = new PdfOutput();
+
+  @Benchmark
+  public List<Map<String, Object>> computeInputParameters() {
+    return ParameterToolbox.computeParameters(true);
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> computeOutputParameters() {
+    return ParameterToolbox.computeParameters(false);
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> cachedInputParameters() {
+    return pdfInput.getInputParameters();
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> cachedOutputParameters() {
+    return pdfOutput.getOutputParameters();
+  }
+}
@@ -0,0 +1,159 @@
+package io.camunda.pdf.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.PdfInput;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.mockito.Mockito;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Documents and contexts shared by the benchmarks and the load test.
+ * A document is a file of src/test/resources (DocHeader.pdf), or a synthetic document generated at the setup:
+ * "synthetic-pdf:200" is a PDF of 200 pages, "synthetic-jpg:4000x3000" a JPEG of 4000x3000 pixels.
+ */
+public class BenchmarkFixtures {
+  public static final String SYNTHETIC_PDF = "synthetic-pdf:";
+  public static final String SYNTHETIC_JPG = "synthetic-jpg:";
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /**
+   * Toolbox, only static method
+   */
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * Return the content of a document
+   *
+   * @param document a resource name, or a synthetic document
+   * @return the content
+   * @throws Exception if the resource does not exist
+   */
+  public static byte[] getDocument(String document) throws Exception {
+    if (document.startsWith(SYNTHETIC_PDF))
+      return createPdf(Integer.parseInt(document.substring(SYNTHETIC_PDF.length())));
+    if (document.startsWith(SYNTHETIC_JPG)) {
+      String[] size = document.substring(SYNTHETIC_JPG.length()).split("x");
+      return createJpeg(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+    }
+    try (InputStream inputStream = BenchmarkFixtures.class.getResourceAsStream("/" + document)) {
+      if (inputStream == null)
+        throw new Exception("Resource [" + document + "] does not exist");
+      return inputStream.readAllBytes();
+    }
+  }
+
+  /**
+   * Return the file name of a document
+   *
+   * @param document a resource name, or a synthetic document
+   * @return the file name
+   */
+  public static String getFileName(String document) {
+    if (document.startsWith(SYNTHETIC_PDF))
+      return "synthetic_" + document.substring(SYNTHETIC_PDF.length()) + ".pdf";
+    if (document.startsWith(SYNTHETIC_JPG))
+      return "synthetic_" + document.substring(SYNTHETIC_JPG.length()) + ".jpg";
+    return document;
+  }
+
+  /**
+   * Build a PdfInput from parameters, like the connector runtime does
+   *
+   * @param parameters parameters, the keys are the PdfInput constants
+   * @return the input
+   */
+  public static PdfInput createInput(Map<String, Object> parameters) {
+    return objectMapper.convertValue(parameters, PdfInput.class);
+  }
+
+  /**
+   * A context for a sub-function, or for PdfFunction.execute() if the input is given.
+   * The mock does not record the calls: it can be used by several threads, during a long run
+   *
+   * @param pdfInput input returned by bindVariables, may be null
+   * @return the context
+   */
+  public static OutboundConnectorContext createContext(PdfInput pdfInput) {
+    OutboundConnectorContext context = Mockito.mock(OutboundConnectorContext.class,
+        Mockito.withSettings().stubOnly());
+    if (pdfInput != null)
+      Mockito.when(context.bindVariables(PdfInput.class)).thenReturn(pdfInput);
+    return context;
+  }
+
+  /**
+   * A PDF with text and vector graphics on each page, saved with the standard fonts
+   *
+   * @param nbPages number of pages
+   * @return the content of the PDF
+   * @throws Exception in case of error
+   */
+  public static byte[] createPdf(int nbPages) throws Exception {
+    try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+      for (int pageIndex = 0; pageIndex < nbPages; pageIndex++) {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+          contentStream.setNonStrokingColor(0.9f, 0.9f, 1f);
+          contentStream.addRect(40, 40, 515, 60);
+          contentStream.fill();
+
+          contentStream.beginText();
+          contentStream.setFont(PDType1Font.HELVETICA, 10);
+          contentStream.setNonStrokingColor(0f, 0f, 0f);
+          contentStream.setLeading(14);
+          contentStream.newLineAtOffset(50, 780);
+          for (int line = 0; line < 45; line++) {
+            contentStream.showText(
+                "Page " + (pageIndex + 1) + " line " + (line + 1) + " - The quick brown fox jumps over the lazy dog");
+            contentStream.newLine();
+          }
+          contentStream.endText();
+        }
+      }
+      document.save(outputStream);
+      return outputStream.toByteArray();
+    }
+  }
+
+  /**
+   * A JPEG with a gradient: the encoder can't compress it as a uniform image
+   *
+   * @param width  width in pixels
+   * @param height height in pixels
+   * @return the content of the JPEG
+   * @throws Exception in case of error
+   */
+  public static byte[] createJpeg(int width, int height) throws Exception {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    try {
+      graphics.setPaint(new GradientPaint(0, 0, Color.BLUE, width, height, Color.ORANGE));
+      graphics.fillRect(0, 0, width, height);
+      graphics.setColor(Color.WHITE);
+      for (int x = 0; x < width; x += 50) {
+        graphics.drawLine(x, 0, width - x, height);
+      }
+    } finally {
+      graphics.dispose();
+    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ImageIO.write(image, "jpg", outputStream);
+    return outputStream.toByteArray();
+  }
+}
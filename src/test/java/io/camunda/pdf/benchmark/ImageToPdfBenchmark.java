@@ -0,0 +1,76 @@
+package io.camunda.pdf.benchmark;
+
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.PdfInput;
+import io.camunda.connector.pdf.PdfOutput;
+import io.camunda.connector.pdf.imagetopdf.ImageToPdfFunction;
+import io.camunda.connector.pdf.sharedfunctions.DocumentStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the function image to PDF, on the JPEG of the test resources and on large synthetic JPEG.
+ * A set of images is a list separated by a comma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class ImageToPdfBenchmark {
+
+  @Param({"Alpes-Huez.jpg,Grenoble.jpg,Mont-Saint-Michel.jpg", //
+      BenchmarkFixtures.SYNTHETIC_JPG + "4000x3000," + BenchmarkFixtures.SYNTHETIC_JPG + "4000x3000"})
+  public String images;
+
+  @Param({PdfInput.IMAGE_PAGE_SIZE_IMAGE, PdfInput.IMAGE_PAGE_SIZE_A4})
+  public String pageSize;
+
+  private final ImageToPdfFunction imageToPdfFunction = new ImageToPdfFunction();
+
+  private OutboundConnectorContext context;
+  private PdfInput imageToPdfInput;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    InMemoryDocumentStorage storage = new InMemoryDocumentStorage(false);
+    DocumentStorage.setBackend(storage);
+    List<String> listReferences = new ArrayList<>();
+    for (String image : images.split(",")) {
+      listReferences.add(
+          storage.putFile(BenchmarkFixtures.getFileName(image), BenchmarkFixtures.getDocument(image)));
+    }
+    context = BenchmarkFixtures.createContext(null);
+    imageToPdfInput = BenchmarkFixtures.createInput(Map.of(PdfInput.LIST_SOURCE_FILE, listReferences, //
+        PdfInput.IMAGE_PAGE_SIZE, pageSize, //
+        PdfInput.DESTINATION_FILE_NAME, "benchmark.pdf", //
+        PdfInput.DESTINATION_STORAGEDEFINITION, "TEMPFOLDER"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    DocumentStorage.setBackend(null);
+  }
+
+  @Benchmark
+  public PdfOutput imageToPdf() {
+    return imageToPdfFunction.executeSubFunction(imageToPdfInput, context);
+  }
+}
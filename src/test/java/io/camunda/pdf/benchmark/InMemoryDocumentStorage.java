@@ -0,0 +1,97 @@
+package io.camunda.pdf.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.sharedfunctions.DocumentStorage;
+import io.camunda.filestorage.FileVariable;
+import io.camunda.filestorage.FileVariableReference;
+import io.camunda.filestorage.storage.StorageDefinition;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage in the heap, replacing the FileStorage library during a benchmark or a load test: the measure does not
+ * include a remote storage.
+ * The files produced are counted, but not kept (unless keepSavedFiles): a long run does not fill the heap.
+ */
+public class InMemoryDocumentStorage implements DocumentStorage.Backend {
+  private static final String STORAGE_NAME = "MEMORY";
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final boolean keepSavedFiles;
+  // key is the JSON of the reference
+  private final Map<String, FileVariable> files = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong nbFilesSaved = new AtomicLong();
+  private final AtomicLong nbBytesSaved = new AtomicLong();
+
+  /**
+   * @param keepSavedFiles true to keep the files produced, so they can be read again
+   */
+  public InMemoryDocumentStorage(boolean keepSavedFiles) {
+    this.keepSavedFiles = keepSavedFiles;
+  }
+
+  /**
+   * Register a source document
+   *
+   * @param name    name of the document
+   * @param content content of the document
+   * @return the reference of the document, in JSON: give it as sourceFile to a function
+   * @throws Exception if the reference can't be created
+   */
+  public String putFile(String name, byte[] content) throws Exception {
+    FileVariable fileVariable = new FileVariable();
+    fileVariable.setName(name);
+    fileVariable.setValue(content);
+    fileVariable.setStorageDefinition(StorageDefinition.getFromStorageDefinition("TEMPFOLDER"));
+    FileVariableReference reference = store(fileVariable);
+    return reference.toJson();
+  }
+
+  @Override
+  public FileVariable loadFileVariable(FileVariableReference reference,
+                                       OutboundConnectorContext outboundConnectorContext) throws Exception {
+    FileVariable stored = files.get(reference.toJson());
+    if (stored == null)
+      throw new Exception("No file in memory for reference [" + reference.toJson() + "]");
+    // a new FileVariable at each load, like a real storage: a function may change it
+    FileVariable fileVariable = new FileVariable();
+    fileVariable.setName(stored.getName());
+    fileVariable.setValue(stored.getValue());
+    fileVariable.setStorageDefinition(stored.getStorageDefinition());
+    return fileVariable;
+  }
+
+  @Override
+  public FileVariableReference saveFileVariable(FileVariable fileVariable,
+                                                OutboundConnectorContext outboundConnectorContext) throws Exception {
+    nbFilesSaved.incrementAndGet();
+    nbBytesSaved.addAndGet(fileVariable.getValue() == null ? 0 : fileVariable.getValue().length);
+    if (keepSavedFiles)
+      return store(fileVariable);
+    return createReference();
+  }
+
+  public long getNbFilesSaved() {
+    return nbFilesSaved.get();
+  }
+
+  public long getNbBytesSaved() {
+    return nbBytesSaved.get();
+  }
+
+  private FileVariableReference store(FileVariable fileVariable) throws Exception {
+    FileVariableReference reference = createReference();
+    files.put(reference.toJson(), fileVariable);
+    return reference;
+  }
+
+  private FileVariableReference createReference() throws Exception {
+    String referenceJson = objectMapper.writeValueAsString(
+        Map.of("storageDefinition", STORAGE_NAME, "content", "file-" + sequence.incrementAndGet()));
+    return FileVariableReference.fromObject(referenceJson);
+  }
+}
@@ -0,0 +1,119 @@
+package io.camunda.pdf.benchmark;
+
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.PdfInput;
+import io.camunda.connector.pdf.PdfOutput;
+import io.camunda.connector.pdf.extractpages.PdfExtractPagesFunction;
+import io.camunda.connector.pdf.mergepdf.PdfMergePdfFunction;
+import io.camunda.connector.pdf.pdftoimage.PdfToImageFunction;
+import io.camunda.connector.pdf.sharedfunctions.DocumentStorage;
+import io.camunda.connector.pdf.split.PdfSplitFunction;
+import io.camunda.connector.pdf.watermark.PdfWatermarkFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the functions working on a PDF: extract pages, merge, watermark, split, PDF to images.
+ * The storage is in memory (InMemoryDocumentStorage): the measure is the connector only.
+ * Throughput gives the operations per second, SampleTime the latency percentiles; run with "-prof gc" (see the
+ * profile benchmark in the pom) to get the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class PdfDocumentBenchmark {
+
+  @Param({"BPMN 2.0 Symbols.pdf", "DocHeader.pdf", BenchmarkFixtures.SYNTHETIC_PDF + "200"})
+  public String document;
+
+  private final PdfExtractPagesFunction extractPagesFunction = new PdfExtractPagesFunction();
+  private final PdfMergePdfFunction mergePdfFunction = new PdfMergePdfFunction();
+  private final PdfWatermarkFunction watermarkFunction = new PdfWatermarkFunction();
+  private final PdfSplitFunction splitFunction = new PdfSplitFunction();
+  private final PdfToImageFunction pdfToImageFunction = new PdfToImageFunction();
+
+  private OutboundConnectorContext context;
+  private PdfInput extractPagesInput;
+  private PdfInput mergeInput;
+  private PdfInput watermarkInput;
+  private PdfInput splitInput;
+  private PdfInput pdfToImagesInput;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    InMemoryDocumentStorage storage = new InMemoryDocumentStorage(false);
+    DocumentStorage.setBackend(storage);
+    String sourceReference = storage.putFile(BenchmarkFixtures.getFileName(document),
+        BenchmarkFixtures.getDocument(document));
+    context = BenchmarkFixtures.createContext(null);
+
+    extractPagesInput = createInput(Map.of(PdfInput.SOURCE_FILE, sourceReference, //
+        PdfInput.EXTRACT_EXPRESSION, "1-n:odd"));
+    mergeInput = createInput(Map.of(PdfInput.LIST_SOURCE_FILE, List.of(sourceReference, sourceReference)));
+    watermarkInput = createInput(Map.of(PdfInput.SOURCE_FILE, sourceReference, //
+        PdfInput.WATERMARK, "CONFIDENTIAL", //
+        PdfInput.WATERMARK_POSITION, PdfInput.WATERMARK_POSITION_CENTER));
+    splitInput = createInput(Map.of(PdfInput.SOURCE_FILE, sourceReference, //
+        PdfInput.SPLIT_MODE, PdfInput.SPLIT_MODE_EVERY_N_PAGES, //
+        PdfInput.SPLIT_EVERY_N_PAGES, 10));
+    // a low resolution: the benchmark measures the pipeline, not only the rasterizer
+    pdfToImagesInput = createInput(Map.of(PdfInput.SOURCE_FILE, sourceReference, //
+        PdfInput.PDFTOIMAGE_DPI, 72));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    DocumentStorage.setBackend(null);
+  }
+
+  @Benchmark
+  public PdfOutput extractPages() {
+    return extractPagesFunction.executeSubFunction(extractPagesInput, context);
+  }
+
+  @Benchmark
+  public PdfOutput mergePdfs() {
+    return mergePdfFunction.executeSubFunction(mergeInput, context);
+  }
+
+  @Benchmark
+  public PdfOutput watermark() {
+    return watermarkFunction.executeSubFunction(watermarkInput, context);
+  }
+
+  @Benchmark
+  public PdfOutput split() {
+    return splitFunction.executeSubFunction(splitInput, context);
+  }
+
+  @Benchmark
+  public PdfOutput pdfToImages() {
+    return pdfToImageFunction.executeSubFunction(pdfToImagesInput, context);
+  }
+
+  private static PdfInput createInput(Map<String, Object> parameters) {
+    Map<String, Object> allParameters = new HashMap<>(parameters);
+    allParameters.put(PdfInput.DESTINATION_FILE_NAME, "benchmark.pdf");
+    allParameters.put(PdfInput.DESTINATION_STORAGEDEFINITION, "TEMPFOLDER");
+    return BenchmarkFixtures.createInput(allParameters);
+  }
+}
@@ -0,0 +1,314 @@
+package io.camunda.pdf.benchmark;
+
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.pdf.PdfFunction;
+import io.camunda.connector.pdf.PdfInput;
+import io.camunda.connector.pdf.sharedfunctions.DocumentStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test: how many concurrent jobs one JVM sustains.
+ * N threads call PdfFunction.execute() in a loop, like N jobs activated in parallel by the worker: each job has its own
+ * OutboundConnectorContext, built on the input of its function. Each level of concurrency runs for a duration, then
+ * the throughput, the latency percentiles and the heap are reported. The test stops at the first level where the p99
+ * goes over the limit, or the heap is exhausted.
+ * The storage is in memory (InMemoryDocumentStorage): the measure is the connector only.
+ * <p>
+ * Run the main with the pod resources, for example -Xmx512m -XX:ActiveProcessorCount=1. System properties:
+ * <ul>
+ *   <li>loadtest.concurrency: levels of concurrency, default 1,2,4,8,16,32</li>
+ *   <li>loadtest.duration-seconds: duration of each level, default 30</li>
+ *   <li>loadtest.warmup-seconds: warm up before the first level, default 10</li>
+ *   <li>loadtest.mix: functions executed, with a weight. Default
+ *   extract-pages:4,watermark:2,merge-pdfs:1,split:1,pdf-to-images:1,image-to-pdf:1</li>
+ *   <li>loadtest.document: PDF source, a resource or a synthetic document (synthetic-pdf:20), default
+ *   BPMN 2.0 Symbols.pdf</li>
+ *   <li>loadtest.max-p99-ms: the latency considered as collapsed, default 30000</li>
+ *   <li>loadtest.report: CSV file of the report, default target/loadtest-report.csv</li>
+ * </ul>
+ */
+public class PdfLoadTest {
+  private static final Logger logger = LoggerFactory.getLogger(PdfLoadTest.class.getName());
+
+  private static final String DEFAULT_MIX =
+      "extract-pages:4,watermark:2,merge-pdfs:1,split:1,pdf-to-images:1,image-to-pdf:1";
+  private static final List<String> IMAGES = List.of("Alpes-Huez.jpg", "Grenoble.jpg", "Mont-Saint-Michel.jpg");
+  private static final long HEAP_SAMPLE_MS = 100;
+
+  private final PdfFunction pdfFunction = new PdfFunction();
+  // one entry per weight: a random index gives the function with the expected frequency
+  private final List<String> mixFunctions = new ArrayList<>();
+  // input of each function: the input is read only, each job gets its own context built on it
+  private final Map<String, PdfInput> inputs = new HashMap<>();
+
+  public static void main(String[] args) throws Exception {
+    String concurrencyProperty = System.getProperty("loadtest.concurrency", "1,2,4,8,16,32");
+    List<Integer> concurrencyLevels = Arrays.stream(concurrencyProperty.split(","))
+        .map(String::trim)
+        .map(Integer::valueOf)
+        .toList();
+    long durationSeconds = Long.getLong("loadtest.duration-seconds", 30);
+    long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+    long maxP99Ms = Long.getLong("loadtest.max-p99-ms", 30000);
+    String mix = System.getProperty("loadtest.mix", DEFAULT_MIX);
+    String document = System.getProperty("loadtest.document", "BPMN 2.0 Symbols.pdf");
+    Path reportPath = Paths.get(System.getProperty("loadtest.report", "target/loadtest-report.csv"));
+
+    InMemoryDocumentStorage storage = new InMemoryDocumentStorage(false);
+    DocumentStorage.setBackend(storage);
+    try {
+      PdfLoadTest loadTest = new PdfLoadTest(storage, mix, document);
+      logger.info("PdfLoadTest mix [{}] document [{}] levels {} {} s per level, heap max {} Mo, {} processors", mix,
+          document, concurrencyLevels, durationSeconds, Runtime.getRuntime().maxMemory() / (1024 * 1024),
+          Runtime.getRuntime().availableProcessors());
+
+      loadTest.runLevel(1, warmupSeconds);
+
+      List<LevelResult> listResults = new ArrayList<>();
+      for (int concurrency : concurrencyLevels) {
+        LevelResult levelResult = loadTest.runLevel(concurrency, durationSeconds);
+        listResults.add(levelResult);
+        logger.info("PdfLoadTest {}", levelResult.getSynthesis());
+        if (levelResult.outOfMemory() || levelResult.percentile(99) > maxP99Ms) {
+          logger.info("PdfLoadTest stop at concurrency {}: {}", concurrency,
+              levelResult.outOfMemory() ? "heap exhausted" : "p99 over " + maxP99Ms + " ms");
+          break;
+        }
+      }
+      report(listResults, reportPath);
+      logger.info("PdfLoadTest {} files saved, {} Mo", storage.getNbFilesSaved(),
+          storage.getNbBytesSaved() / (1024 * 1024));
+    } finally {
+      DocumentStorage.setBackend(null);
+    }
+  }
+
+  /**
+   * @param storage  storage of the sources
+   * @param mix      functions executed with their weight (extract-pages:4,watermark:1)
+   * @param document PDF source of the functions
+   * @throws Exception if a source can't be created
+   */
+  private PdfLoadTest(InMemoryDocumentStorage storage, String mix, String document) throws Exception {
+    String pdfReference = storage.putFile(BenchmarkFixtures.getFileName(document),
+        BenchmarkFixtures.getDocument(document));
+    List<String> listImageReferences = new ArrayList<>();
+    for (String image : IMAGES) {
+      listImageReferences.add(storage.putFile(image, BenchmarkFixtures.getDocument(image)));
+    }
+
+    for (String functionWeight : mix.split(",")) {
+      String[] functionAndWeight = functionWeight.trim().split(":");
+      String function = functionAndWeight[0];
+      int weight = functionAndWeight.length > 1 ? Integer.parseInt(functionAndWeight[1]) : 1;
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put(PdfInput.PDFFUNCTION, function);
+      parameters.put(PdfInput.DESTINATION_FILE_NAME, "loadtest.pdf");
+      parameters.put(PdfInput.DESTINATION_STORAGEDEFINITION, "TEMPFOLDER");
+      switch (function) {
+        case "extract-pages" -> {
+          parameters.put(PdfInput.SOURCE_FILE, pdfReference);
+          parameters.put(PdfInput.EXTRACT_EXPRESSION, "1-n:odd");
+        }
+        case "merge-pdfs" -> parameters.put(PdfInput.LIST_SOURCE_FILE, List.of(pdfReference, pdfReference));
+        case "watermark" -> {
+          parameters.put(PdfInput.SOURCE_FILE, pdfReference);
+          parameters.put(PdfInput.WATERMARK, "CONFIDENTIAL");
+          // the function has no default position
+          parameters.put(PdfInput.WATERMARK_POSITION, PdfInput.WATERMARK_POSITION_CENTER);
+        }
+        case "split" -> {
+          parameters.put(PdfInput.SOURCE_FILE, pdfReference);
+          parameters.put(PdfInput.SPLIT_MODE, PdfInput.SPLIT_MODE_EVERY_N_PAGES);
+          parameters.put(PdfInput.SPLIT_EVERY_N_PAGES, 1);
+        }
+        case "pdf-to-images" -> {
+          parameters.put(PdfInput.SOURCE_FILE, pdfReference);
+          parameters.put(PdfInput.PDFTOIMAGE_DPI, 150);
+        }
+        case "image-to-pdf" -> parameters.put(PdfInput.LIST_SOURCE_FILE, listImageReferences);
+        default -> throw new Exception("Function [" + function + "] is unknown in the mix");
+      }
+      inputs.put(function, BenchmarkFixtures.createInput(parameters));
+      for (int i = 0; i < weight; i++)
+        mixFunctions.add(function);
+    }
+  }
+
+  /**
+   * Run a level of concurrency
+   *
+   * @param concurrency     number of jobs executed in parallel
+   * @param durationSeconds duration of the level
+   * @return the result of the level
+   * @throws Exception in case of error
+   */
+  private LevelResult runLevel(int concurrency, long durationSeconds) throws Exception {
+    System.gc();
+    long gcTimeBefore = getGcTimeMs();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+    Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+    AtomicLong nbErrors = new AtomicLong();
+    AtomicBoolean outOfMemory = new AtomicBoolean(false);
+    AtomicLong peakHeap = new AtomicLong();
+
+    ExecutorService executorService = Executors.newFixedThreadPool(concurrency + 1);
+    long beginTime = System.nanoTime();
+    for (int i = 0; i < concurrency; i++) {
+      executorService.submit(() -> {
+        while (System.nanoTime() < deadline && !outOfMemory.get()) {
+          String function = mixFunctions.get(ThreadLocalRandom.current().nextInt(mixFunctions.size()));
+          // one context per job, like the worker does: a context is never shared by two executions
+          OutboundConnectorContext context = BenchmarkFixtures.createContext(inputs.get(function));
+          long beginJob = System.nanoTime();
+          try {
+            pdfFunction.execute(context);
+            latencies.computeIfAbsent(function, k -> new ConcurrentLinkedQueue<>())
+                .add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beginJob));
+          } catch (OutOfMemoryError e) {
+            outOfMemory.set(true);
+          } catch (Exception e) {
+            nbErrors.incrementAndGet();
+            logger.error("PdfLoadTest function [{}] failed: {}", function, e.getMessage());
+          }
+        }
+      });
+    }
+    // the heap is sampled while the jobs run
+    executorService.submit(() -> {
+      Runtime runtime = Runtime.getRuntime();
+      while (System.nanoTime() < deadline && !outOfMemory.get()) {
+        peakHeap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+        Thread.sleep(HEAP_SAMPLE_MS);
+      }
+      return null;
+    });
+    executorService.shutdown();
+    // a job started just before the deadline must end: give it the time of one more level
+    if (!executorService.awaitTermination(2 * durationSeconds + 60, TimeUnit.SECONDS)) {
+      logger.error("PdfLoadTest concurrency {}: jobs still running after the level", concurrency);
+      executorService.shutdownNow();
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beginTime);
+
+    Map<String, long[]> sortedLatencies = new LinkedHashMap<>();
+    for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : latencies.entrySet()) {
+      long[] values = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+      sortedLatencies.put(entry.getKey(), values);
+    }
+    return new LevelResult(concurrency, elapsedMs, sortedLatencies, nbErrors.get(), outOfMemory.get(),
+        peakHeap.get(), getGcTimeMs() - gcTimeBefore);
+  }
+
+  private static long getGcTimeMs() {
+    long gcTimeMs = 0;
+    for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      gcTimeMs += Math.max(gcBean.getCollectionTime(), 0);
+    }
+    return gcTimeMs;
+  }
+
+  /**
+   * Write the report: one line per level, then one line per level and function
+   */
+  private static void report(List<LevelResult> listResults, Path reportPath) throws Exception {
+    logger.info("PdfLoadTest report");
+    logger.info(String.format("%12s %8s %10s %8s %8s %8s %8s %7s %9s %7s", "concurrency", "jobs", "jobs/s", "p50 ms",
+        "p95 ms", "p99 ms", "max ms", "errors", "heap Mo", "gc ms"));
+    for (LevelResult levelResult : listResults) {
+      long[] all = levelResult.getAllLatencies();
+      logger.info(String.format("%12d %8d %10.2f %8d %8d %8d %8d %7d %9d %7d", levelResult.concurrency(), all.length,
+          levelResult.getThroughput(), percentile(all, 50), percentile(all, 95), percentile(all, 99),
+          percentile(all, 100), levelResult.nbErrors(), levelResult.peakHeapBytes() / (1024 * 1024),
+          levelResult.gcTimeMs()) + (levelResult.outOfMemory() ? " OutOfMemory" : ""));
+    }
+
+    if (reportPath.getParent() != null)
+      Files.createDirectories(reportPath.getParent());
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportPath))) {
+      writer.println(
+          "concurrency,function,jobs,jobsPerSecond,p50Ms,p95Ms,p99Ms,maxMs,errors,peakHeapMo,gcMs,outOfMemory");
+      for (LevelResult levelResult : listResults) {
+        writeLine(writer, levelResult, "all", levelResult.getAllLatencies());
+        for (Map.Entry<String, long[]> entry : levelResult.latencies().entrySet()) {
+          writeLine(writer, levelResult, entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    logger.info("PdfLoadTest report saved in [{}]", reportPath.toAbsolutePath());
+  }
+
+  private static void writeLine(PrintWriter writer, LevelResult levelResult, String function, long[] latencies) {
+    writer.println(
+        levelResult.concurrency() + "," + function + "," + latencies.length + "," + String.format("%.2f",
+            latencies.length * 1000.0 / levelResult.elapsedMs()) + "," + percentile(latencies, 50) + ","
+            + percentile(latencies, 95) + "," + percentile(latencies, 99) + "," + percentile(latencies, 100) + ","
+            + levelResult.nbErrors() + "," + levelResult.peakHeapBytes() / (1024 * 1024) + ","
+            + levelResult.gcTimeMs() + "," + levelResult.outOfMemory());
+  }
+
+  /**
+   * @param sortedValues values, sorted
+   * @param percentile   percentile, 100 for the max
+   * @return the value, 0 if there is no value
+   */
+  private static long percentile(long[] sortedValues, int percentile) {
+    if (sortedValues.length == 0)
+      return 0;
+    int index = (int) Math.ceil(percentile / 100.0 * sortedValues.length) - 1;
+    return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+  }
+
+  /**
+   * Result of one level of concurrency. Latencies are per function, sorted
+   */
+  private record LevelResult(int concurrency,
+                             long elapsedMs,
+                             Map<String, long[]> latencies,
+                             long nbErrors,
+                             boolean outOfMemory,
+                             long peakHeapBytes,
+                             long gcTimeMs) {
+    long[] getAllLatencies() {
+      return latencies.values().stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+
+    double getThroughput() {
+      return getAllLatencies().length * 1000.0 / elapsedMs;
+    }
+
+    long percentile(int percentile) {
+      return PdfLoadTest.percentile(getAllLatencies(), percentile);
+    }
+
+    String getSynthesis() {
+      long[] all = getAllLatencies();
+      return "concurrency " + concurrency + ": " + all.length + " jobs, " + String.format("%.2f", getThroughput())
+          + " jobs/s, p50 " + PdfLoadTest.percentile(all, 50) + " ms, p95 " + PdfLoadTest.percentile(all, 95)
+          + " ms, p99 " + PdfLoadTest.percentile(all, 99) + " ms, errors " + nbErrors + ", peak heap "
+          + peakHeapBytes / (1024 * 1024) + " Mo, gc " + gcTimeMs + " ms" + (outOfMemory ? ", OutOfMemory" : "");
+    }
+  }
+}